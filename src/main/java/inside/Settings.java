@@ -1,6 +1,7 @@
 package inside;
 
 import discord4j.rest.util.Color;
+import inside.audit.OverflowPolicy;
 import inside.data.entity.AdminActionType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -18,6 +19,10 @@ public class Settings{
 
     private final Audit audit = new Audit();
 
+    private final Cache cache = new Cache();
+
+    private final Persistence persistence = new Persistence();
+
     public String getToken(){
         return token;
     }
@@ -38,16 +43,37 @@ public class Settings{
         return audit;
     }
 
+    public Cache getCache(){
+        return cache;
+    }
+
+    public Persistence getPersistence(){
+        return persistence;
+    }
+
     public static class Discord{
 
         private int maxClearedCount = 100;
 
         private boolean encryptMessages = true;
 
+        // without secret messages are encrypted with a built-in key
+        private String encryptionSecret;
+
         private boolean auditLogSaving = false;
 
         private Duration errorEmbedTtl = Duration.ofSeconds(7);
 
+        // reactions on one message are coalesced into a single starboard edit per window
+        private Duration starboardUpdateWindow = Duration.ofSeconds(5);
+
+        // role changes are merged during the delay and then sent one per interval for each guild
+        private Duration roleMutationDelay = Duration.ofSeconds(2);
+
+        private Duration roleMutationInterval = Duration.ofMillis(250);
+
+        private int roleMutationQueueCapacity = 1000;
+
         private String youtubeApiKey;
 
         // TODO: implement api
@@ -69,6 +95,14 @@ public class Settings{
             this.encryptMessages = encryptMessages;
         }
 
+        public String getEncryptionSecret(){
+            return encryptionSecret;
+        }
+
+        public void setEncryptionSecret(String encryptionSecret){
+            this.encryptionSecret = encryptionSecret;
+        }
+
         public boolean isAuditLogSaving(){
             return auditLogSaving;
         }
@@ -85,6 +119,38 @@ public class Settings{
             this.errorEmbedTtl = errorEmbedTtl;
         }
 
+        public Duration getStarboardUpdateWindow(){
+            return starboardUpdateWindow;
+        }
+
+        public void setStarboardUpdateWindow(Duration starboardUpdateWindow){
+            this.starboardUpdateWindow = starboardUpdateWindow;
+        }
+
+        public Duration getRoleMutationDelay(){
+            return roleMutationDelay;
+        }
+
+        public void setRoleMutationDelay(Duration roleMutationDelay){
+            this.roleMutationDelay = roleMutationDelay;
+        }
+
+        public Duration getRoleMutationInterval(){
+            return roleMutationInterval;
+        }
+
+        public void setRoleMutationInterval(Duration roleMutationInterval){
+            this.roleMutationInterval = roleMutationInterval;
+        }
+
+        public int getRoleMutationQueueCapacity(){
+            return roleMutationQueueCapacity;
+        }
+
+        public void setRoleMutationQueueCapacity(int roleMutationQueueCapacity){
+            this.roleMutationQueueCapacity = roleMutationQueueCapacity;
+        }
+
         public String getYoutubeApiKey(){
             return youtubeApiKey;
         }
@@ -231,6 +297,22 @@ public class Settings{
 
         private Duration memberKeep = Duration.ofDays(365);
 
+        private int queueCapacity = 10000;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        // actions handed to the guild lanes and not delivered yet, the queue fills up beyond it
+        private int deliveryCapacity = 1000;
+
+        // zero sends every action in its own message
+        private Duration flushWindow = Duration.ofSeconds(2);
+
+        // a guild lane without actions for this long is completed and removed
+        private Duration laneIdleTimeout = Duration.ofMinutes(10);
+
+        // the guild owner is told about a log channel without permissions at most once per interval
+        private Duration permissionNoticeInterval = Duration.ofHours(6);
+
         public Duration getHistoryKeep(){
             return historyKeep;
         }
@@ -246,5 +328,192 @@ public class Settings{
         public void setMemberKeep(Duration memberKeep){
             this.memberKeep = memberKeep;
         }
+
+        public int getQueueCapacity(){
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity){
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getDeliveryCapacity(){
+            return deliveryCapacity;
+        }
+
+        public void setDeliveryCapacity(int deliveryCapacity){
+            this.deliveryCapacity = deliveryCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy(){
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy){
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public Duration getFlushWindow(){
+            return flushWindow;
+        }
+
+        public void setFlushWindow(Duration flushWindow){
+            this.flushWindow = flushWindow;
+        }
+
+        public Duration getLaneIdleTimeout(){
+            return laneIdleTimeout;
+        }
+
+        public void setLaneIdleTimeout(Duration laneIdleTimeout){
+            this.laneIdleTimeout = laneIdleTimeout;
+        }
+
+        public Duration getPermissionNoticeInterval(){
+            return permissionNoticeInterval;
+        }
+
+        public void setPermissionNoticeInterval(Duration permissionNoticeInterval){
+            this.permissionNoticeInterval = permissionNoticeInterval;
+        }
+    }
+
+    public static class Cache{
+
+        private long maximumSize = 1000;
+
+        private Duration expireAfterWrite = Duration.ofHours(1);
+
+        private Duration missExpireAfterWrite = Duration.ofMinutes(5);
+
+        // per entity type overrides, e.g. 'local-member: 20000'; zero disables caching of the type
+        private Map<String, Long> maximumSizes = new HashMap<>(Map.of(
+                "local-member", 20000L,
+                "message-info", 5000L
+        ));
+
+        public long getMaximumSize(){
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize){
+            this.maximumSize = maximumSize;
+        }
+
+        public long getMaximumSize(String type){
+            return maximumSizes.getOrDefault(type, maximumSize);
+        }
+
+        public Duration getExpireAfterWrite(){
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite){
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getMissExpireAfterWrite(){
+            return missExpireAfterWrite;
+        }
+
+        public void setMissExpireAfterWrite(Duration missExpireAfterWrite){
+            this.missExpireAfterWrite = missExpireAfterWrite;
+        }
+
+        public Map<String, Long> getMaximumSizes(){
+            return maximumSizes;
+        }
+
+        public void setMaximumSizes(Map<String, Long> maximumSizes){
+            this.maximumSizes = maximumSizes;
+        }
+    }
+
+    public static class Persistence{
+
+        // zero means the maximum size of the connection pool
+        private int threadCount = 0;
+
+        // tasks beyond it are rejected, the calling mono fails with a RejectedExecutionException
+        private int queueCapacity = 10000;
+
+        private int writeBatchSize = 100;
+
+        // attempts of a write-behind batch before its values are dropped
+        private int writeAttempts = 5;
+
+        // doubled after every failed attempt
+        private Duration writeRetryDelay = Duration.ofSeconds(1);
+
+        private int pageSize = 500;
+
+        // rows deleted per statement by the retention cleanup
+        private int retentionChunkSize = 5000;
+
+        private Duration retentionPause = Duration.ofMillis(200);
+
+        public int getThreadCount(){
+            return threadCount;
+        }
+
+        public void setThreadCount(int threadCount){
+            this.threadCount = threadCount;
+        }
+
+        public int getQueueCapacity(){
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity){
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getWriteBatchSize(){
+            return writeBatchSize;
+        }
+
+        public void setWriteBatchSize(int writeBatchSize){
+            this.writeBatchSize = writeBatchSize;
+        }
+
+        public int getWriteAttempts(){
+            return writeAttempts;
+        }
+
+        public void setWriteAttempts(int writeAttempts){
+            this.writeAttempts = writeAttempts;
+        }
+
+        public Duration getWriteRetryDelay(){
+            return writeRetryDelay;
+        }
+
+        public void setWriteRetryDelay(Duration writeRetryDelay){
+            this.writeRetryDelay = writeRetryDelay;
+        }
+
+        public int getPageSize(){
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize){
+            this.pageSize = pageSize;
+        }
+
+        public int getRetentionChunkSize(){
+            return retentionChunkSize;
+        }
+
+        public void setRetentionChunkSize(int retentionChunkSize){
+            this.retentionChunkSize = retentionChunkSize;
+        }
+
+        public Duration getRetentionPause(){
+            return retentionPause;
+        }
+
+        public void setRetentionPause(Duration retentionPause){
+            this.retentionPause = retentionPause;
+        }
     }
 }
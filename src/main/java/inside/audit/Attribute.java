@@ -3,42 +3,70 @@ package inside.audit;
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.reaction.ReactionEmoji;
 import inside.data.entity.base.NamedReference;
+import reactor.util.annotation.Nullable;
 
 import java.time.Instant;
 import java.util.*;
 
 public final class Attribute<T>{
+    // declared before the constants, which register themselves in order
+    private static final List<Attribute<?>> all = new ArrayList<>();
 
-    public static final Attribute<String> OLD_CONTENT = new Attribute<>("old_content");
+    public static final Attribute<String> OLD_CONTENT = new Attribute<>("old_content", AttributeCodec.string);
 
-    public static final Attribute<String> NEW_CONTENT = new Attribute<>("new_content");
+    public static final Attribute<String> NEW_CONTENT = new Attribute<>("new_content", AttributeCodec.string);
 
-    public static final Attribute<String> REASON = new Attribute<>("reason");
+    public static final Attribute<String> REASON = new Attribute<>("reason", AttributeCodec.string);
 
-    public static final Attribute<Instant> DELAY = new Attribute<>("delay");
+    public static final Attribute<Instant> DELAY = new Attribute<>("delay", AttributeCodec.instant);
 
-    public static final Attribute<String> AVATAR_URL = new Attribute<>("avatar_url");
+    public static final Attribute<String> AVATAR_URL = new Attribute<>("avatar_url", AttributeCodec.string);
 
-    public static final Attribute<String> OLD_AVATAR_URL = new Attribute<>("old_avatar_url");
+    public static final Attribute<String> OLD_AVATAR_URL = new Attribute<>("old_avatar_url", AttributeCodec.string);
 
-    public static final Attribute<String> OLD_NICKNAME = new Attribute<>("old_nickname");
+    public static final Attribute<String> OLD_NICKNAME = new Attribute<>("old_nickname", AttributeCodec.string);
 
-    public static final Attribute<String> NEW_NICKNAME = new Attribute<>("new_nickname");
+    public static final Attribute<String> NEW_NICKNAME = new Attribute<>("new_nickname", AttributeCodec.string);
 
-    public static final Attribute<Snowflake> MESSAGE_ID = new Attribute<>("message_id");
+    public static final Attribute<Snowflake> MESSAGE_ID = new Attribute<>("message_id", AttributeCodec.snowflake);
 
-    public static final Attribute<Long> COUNT = new Attribute<>("count");
+    public static final Attribute<Long> COUNT = new Attribute<>("count", AttributeCodec.int64);
 
-    public static final Attribute<ReactionEmoji> REACTION_EMOJI = new Attribute<>("reaction_emoji");
+    public static final Attribute<ReactionEmoji> REACTION_EMOJI = new Attribute<>("reaction_emoji", AttributeCodec.reactionEmoji);
 
-    public static final Attribute<Collection<Snowflake>> ROLE_IDS = new Attribute<>("role_ids");
+    public static final Attribute<Collection<Snowflake>> ROLE_IDS = new Attribute<>("role_ids", AttributeCodec.snowflakes);
 
-    public static final Attribute<NamedReference> OLD_CHANNEL = new Attribute<>("old_channel");
+    public static final Attribute<NamedReference> OLD_CHANNEL = new Attribute<>("old_channel", AttributeCodec.namedReference);
 
     public final String name;
 
-    private Attribute(String name){
+    public final int ordinal;
+
+    public final AttributeCodec<T> codec;
+
+    private Attribute(String name, AttributeCodec<T> codec){
         this.name = Objects.requireNonNull(name, "name");
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.ordinal = all.size();
+        all.add(this);
+    }
+
+    public static int count(){
+        return all.size();
+    }
+
+    public static Attribute<?> get(int ordinal){
+        return all.get(ordinal);
+    }
+
+    @Nullable
+    public static Attribute<?> forName(String name){
+        for(Attribute<?> attribute : all){
+            if(attribute.name.equals(name)){
+                return attribute;
+            }
+        }
+        return null;
     }
 
     @Override
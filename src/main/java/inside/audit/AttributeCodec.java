@@ -0,0 +1,118 @@
+package inside.audit;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.reaction.ReactionEmoji;
+import inside.data.entity.base.NamedReference;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+// binary form of attribute values, stored values are immutable so copies can share them
+public final class AttributeCodec<T>{
+
+    public static final AttributeCodec<String> string = new AttributeCodec<>(AttributeCodec::writeString, AttributeCodec::readString);
+
+    public static final AttributeCodec<Long> int64 = new AttributeCodec<>(DataOutput::writeLong, DataInput::readLong);
+
+    public static final AttributeCodec<Instant> instant = new AttributeCodec<>((out, value) -> {
+        out.writeLong(value.getEpochSecond());
+        out.writeInt(value.getNano());
+    }, in -> Instant.ofEpochSecond(in.readLong(), in.readInt()));
+
+    public static final AttributeCodec<Snowflake> snowflake = new AttributeCodec<>(
+            (out, value) -> out.writeLong(value.asLong()),
+            in -> Snowflake.of(in.readLong()));
+
+    public static final AttributeCodec<Collection<Snowflake>> snowflakes = new AttributeCodec<>((out, value) -> {
+        out.writeInt(value.size());
+        for(Snowflake id : value){
+            out.writeLong(id.asLong());
+        }
+    }, in -> {
+        Snowflake[] ids = new Snowflake[in.readInt()];
+        for(int i = 0; i < ids.length; i++){
+            ids[i] = Snowflake.of(in.readLong());
+        }
+        return List.of(ids);
+    }, List::copyOf);
+
+    public static final AttributeCodec<ReactionEmoji> reactionEmoji = new AttributeCodec<>((out, value) -> {
+        if(value instanceof ReactionEmoji.Custom custom){
+            out.writeBoolean(true);
+            out.writeLong(custom.getId().asLong());
+            writeString(out, custom.getName());
+            out.writeBoolean(custom.isAnimated());
+        }else{
+            out.writeBoolean(false);
+            writeString(out, ((ReactionEmoji.Unicode)value).getRaw());
+        }
+    }, in -> in.readBoolean()
+            ? ReactionEmoji.custom(Snowflake.of(in.readLong()), readString(in), in.readBoolean())
+            : ReactionEmoji.unicode(readString(in)));
+
+    public static final AttributeCodec<NamedReference> namedReference = new AttributeCodec<>((out, value) -> {
+        out.writeLong(Snowflake.asLong(value.id()));
+        writeString(out, value.name());
+        String discriminator = value.discriminator();
+        out.writeBoolean(discriminator != null);
+        if(discriminator != null){
+            writeString(out, discriminator);
+        }
+    }, in -> {
+        Snowflake id = Snowflake.of(in.readLong());
+        String name = readString(in);
+        return in.readBoolean() ? new NamedReference(id, name, readString(in)) : new NamedReference(id, name);
+    });
+
+    private final Writer<T> writer;
+    private final Reader<T> reader;
+    private final UnaryOperator<T> immutable;
+
+    private AttributeCodec(Writer<T> writer, Reader<T> reader){
+        this(writer, reader, UnaryOperator.identity());
+    }
+
+    private AttributeCodec(Writer<T> writer, Reader<T> reader, UnaryOperator<T> immutable){
+        this.writer = writer;
+        this.reader = reader;
+        this.immutable = immutable;
+    }
+
+    public void write(DataOutput out, T value) throws IOException{
+        writer.write(out, value);
+    }
+
+    public T read(DataInput in) throws IOException{
+        return reader.read(in);
+    }
+
+    public T immutable(T value){
+        return immutable.apply(value);
+    }
+
+    // unlike writeUTF not limited to 64 kilobytes
+    private static void writeString(DataOutput out, String value) throws IOException{
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException{
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Writer<T>{
+        void write(DataOutput out, T value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T>{
+        T read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,130 @@
+package inside.audit;
+
+import reactor.util.annotation.Nullable;
+
+import java.io.*;
+import java.util.*;
+
+// attribute values indexed by attribute ordinal, copies share the immutable values
+public final class AttributeMap{
+    private static final byte version = 1;
+
+    private final Object[] values;
+
+    public AttributeMap(){
+        values = new Object[Attribute.count()];
+    }
+
+    private AttributeMap(Object[] values){
+        this.values = values;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Attribute<T> key){
+        return (T)values[key.ordinal];
+    }
+
+    public <T> void put(Attribute<T> key, @Nullable T value){
+        values[key.ordinal] = value != null ? key.codec.immutable(value) : null;
+    }
+
+    public boolean isEmpty(){
+        for(Object value : values){
+            if(value != null){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public AttributeMap copy(){
+        return new AttributeMap(values.clone());
+    }
+
+    // version, count and then (name, length, value) for each present attribute
+    @SuppressWarnings("unchecked")
+    public byte[] toBytes(){
+        try{
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            ByteArrayOutputStream valueBytes = new ByteArrayOutputStream(32);
+            DataOutputStream valueOut = new DataOutputStream(valueBytes);
+
+            int count = 0;
+            for(Object value : values){
+                if(value != null){
+                    count++;
+                }
+            }
+
+            out.writeByte(version);
+            out.writeShort(count);
+            for(int i = 0; i < values.length; i++){
+                if(values[i] == null){
+                    continue;
+                }
+
+                Attribute<Object> attribute = (Attribute<Object>)Attribute.get(i);
+                valueBytes.reset();
+                attribute.codec.write(valueOut, values[i]);
+                out.writeUTF(attribute.name);
+                out.writeInt(valueBytes.size());
+                valueBytes.writeTo(out);
+            }
+            return bytes.toByteArray();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // attributes which no longer exist are skipped
+    public static AttributeMap fromBytes(byte[] data){
+        try{
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            byte dataVersion = in.readByte();
+            if(dataVersion != version){
+                throw new IllegalArgumentException("Unknown attributes version: " + dataVersion);
+            }
+
+            AttributeMap map = new AttributeMap();
+            int count = in.readUnsignedShort();
+            for(int i = 0; i < count; i++){
+                Attribute<?> attribute = Attribute.forName(in.readUTF());
+                int length = in.readInt();
+                if(attribute == null){
+                    in.skipNBytes(length);
+                    continue;
+                }
+                map.values[attribute.ordinal] = attribute.codec.read(in);
+            }
+            return map;
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o){
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+        AttributeMap that = (AttributeMap)o;
+        return Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode(){
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString(){
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for(int i = 0; i < values.length; i++){
+            if(values[i] != null){
+                joiner.add(Attribute.get(i).name + "=" + values[i]);
+            }
+        }
+        return joiner.toString();
+    }
+}
@@ -23,7 +23,7 @@ public abstract class AuditActionBuilder{
         action = new AuditAction(guildId);
         action.timestamp(Instant.now());
         action.type(type);
-        action.attributes(new HashMap<>(7));
+        action.attributes(new AttributeMap());
     }
 
     public static NamedReference getReference(Member member){
@@ -82,7 +82,7 @@ public abstract class AuditActionBuilder{
     }
 
     public <T> AuditActionBuilder withAttribute(Attribute<T> key, @Nullable T value){
-        action.attributes().put(key.name, value);
+        action.attributes().put(key, value);
         return this;
     }
 
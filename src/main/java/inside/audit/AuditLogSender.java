@@ -0,0 +1,167 @@
+package inside.audit;
+
+import com.github.benmanes.caffeine.cache.*;
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.*;
+import discord4j.core.object.entity.channel.TextChannel;
+import discord4j.core.spec.*;
+import discord4j.rest.http.client.ClientException;
+import discord4j.rest.util.Permission;
+import inside.Settings;
+import inside.data.entity.AuditConfig;
+import inside.service.*;
+import inside.util.DiscordUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.*;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.ContextView;
+import reactor.util.function.Tuple2;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static reactor.function.TupleUtils.function;
+
+// embeds of one guild are packed into as few messages as discord limits allow, in their order
+@Component
+public class AuditLogSender{
+    public static final int maxEmbeds = 10;
+    private static final int maxFiles = 10;
+    private static final int maxEmbedsLength = 6000;
+
+    private final MessageService messageService;
+
+    private final DiscordService discordService;
+
+    // guild id -> resolved log channel, dropped on channel, role and self member updates
+    private final Cache<Snowflake, Target> targets = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    // guilds whose owner was told about the missing permission recently
+    private final Cache<Snowflake, Boolean> notifiedOwners;
+
+    public AuditLogSender(@Autowired MessageService messageService,
+                          @Autowired DiscordService discordService,
+                          @Autowired Settings settings){
+        this.messageService = messageService;
+        this.discordService = discordService;
+
+        notifiedOwners = Caffeine.newBuilder()
+                .expireAfterWrite(settings.getAudit().getPermissionNoticeInterval())
+                .build();
+    }
+
+    public void invalidate(Snowflake guildId){
+        targets.invalidate(guildId);
+    }
+
+    public Mono<Void> send(AuditConfig config, ContextView context, List<Part> parts){
+        Snowflake guildId = config.guildId();
+        Snowflake channelId = config.logChannelId().orElse(null);
+        if(channelId == null){
+            return Mono.empty();
+        }
+
+        return getTarget(guildId, channelId).flatMap(target -> {
+            if(target.channel() == null){
+                return Mono.empty();
+            }
+            if(!target.canSend()){
+                return notifyOwner(guildId, channelId, context);
+            }
+
+            return Flux.fromIterable(split(parts))
+                    .concatMap(chunk -> target.channel().createMessage(MessageCreateSpec.builder()
+                            .embeds(chunk.stream()
+                                    .map(Part::embed)
+                                    .collect(Collectors.toList()))
+                            .files(chunk.stream()
+                                    .flatMap(part -> part.attachments().stream())
+                                    .map(function(MessageCreateFields.File::of))
+                                    .collect(Collectors.toList()))
+                            .build()))
+                    .doOnError(ClientException.isStatusCode(403, 404), t -> invalidate(guildId))
+                    .then();
+        });
+    }
+
+    private Mono<Target> getTarget(Snowflake guildId, Snowflake channelId){
+        return Mono.defer(() -> {
+            Target cached = targets.getIfPresent(guildId);
+            if(cached != null && cached.channelId().equals(channelId)){
+                return Mono.just(cached);
+            }
+
+            return discordService.getTextChannelById(channelId)
+                    .flatMap(channel -> channel.getEffectivePermissions(discordService.gateway().getSelfId())
+                            .map(set -> new Target(channelId, channel, set.contains(Permission.SEND_MESSAGES))))
+                    .defaultIfEmpty(new Target(channelId, null, false))
+                    .doOnNext(target -> targets.put(guildId, target));
+        });
+    }
+
+    private Mono<Void> notifyOwner(Snowflake guildId, Snowflake channelId, ContextView context){
+        if(notifiedOwners.asMap().putIfAbsent(guildId, true) != null){
+            return Mono.empty();
+        }
+
+        return discordService.gateway().getGuildById(guildId)
+                .flatMap(Guild::getOwner)
+                .flatMap(User::getPrivateChannel)
+                .flatMap(dm -> dm.createMessage(messageService.format(context, "audit.permission-denied",
+                        DiscordUtil.getChannelMention(channelId))))
+                .then();
+    }
+
+    // attachments stay in the message of their embed
+    private static List<List<Part>> split(List<Part> parts){
+        List<List<Part>> chunks = new ArrayList<>();
+        List<Part> chunk = new ArrayList<>(Math.min(parts.size(), maxEmbeds));
+        int files = 0;
+        int length = 0;
+        for(Part part : parts){
+            int partLength = length(part.embed());
+            if(!chunk.isEmpty() && (chunk.size() == maxEmbeds ||
+                    files + part.attachments().size() > maxFiles ||
+                    length + partLength > maxEmbedsLength)){
+                chunks.add(chunk);
+                chunk = new ArrayList<>(maxEmbeds);
+                files = 0;
+                length = 0;
+            }
+
+            chunk.add(part);
+            files += part.attachments().size();
+            length += partLength;
+        }
+
+        if(!chunk.isEmpty()){
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static int length(EmbedCreateSpec embed){
+        int length = embed.titleOrElse("").length() + embed.descriptionOrElse("").length();
+        for(EmbedCreateFields.Field field : embed.fields()){
+            length += field.name().length() + field.value().length();
+        }
+        EmbedCreateFields.Author author = embed.author();
+        if(author != null){
+            length += author.name().length();
+        }
+        EmbedCreateFields.Footer footer = embed.footer();
+        if(footer != null){
+            length += footer.text().length();
+        }
+        return length;
+    }
+
+    public record Part(EmbedCreateSpec embed, List<Tuple2<String, InputStream>> attachments){}
+
+    private record Target(Snowflake channelId, @Nullable TextChannel channel, boolean canSend){}
+}
@@ -1,13 +1,10 @@
 package inside.audit;
 
-import inside.data.entity.*;
-import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
-
-import java.io.InputStream;
-import java.util.List;
+import discord4j.core.spec.EmbedCreateSpec;
+import inside.data.entity.AuditAction;
+import reactor.util.context.ContextView;
 
 public interface AuditProvider{
 
-    Mono<Void> send(AuditConfig config, AuditAction action, List<Tuple2<String, InputStream>> attachments);
+    EmbedCreateSpec createEmbed(AuditAction action, ContextView context);
 }
@@ -26,12 +26,12 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MESSAGE_EDIT)
     public static class MessageEditAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             Snowflake messageId = action.getAttribute(MESSAGE_ID);
             String oldContent = action.getAttribute(OLD_CONTENT);
             String newContent = action.getAttribute(NEW_CONTENT);
             String url = action.getAttribute(AVATAR_URL);
-            if(messageId == null || oldContent == null || newContent == null || url == null){
+            if(messageId == null || newContent == null || url == null){
                 return;
             }
 
@@ -41,7 +41,7 @@ public class AuditProviders{
                     action.channel().id(),
                     messageId.asString()));
 
-            if(oldContent.length() > 0){
+            if(oldContent != null && oldContent.length() > 0){
                 embed.addField(messageService.get(context, "audit.message.old-content.title"),
                         MessageUtil.substringTo(oldContent, Embed.Field.MAX_VALUE_LENGTH), false);
             }
@@ -61,17 +61,17 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MESSAGE_DELETE)
     public static class MessageDeleteAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             String oldContent = action.getAttribute(OLD_CONTENT);
             String url = action.getAttribute(AVATAR_URL);
             NamedReference target = action.target();
-            if(oldContent == null || url == null || target == null){
+            if(url == null || target == null){
                 return;
             }
 
             embed.author(formatName(target), null, url);
 
-            if(oldContent.length() > 0){
+            if(oldContent != null && oldContent.length() > 0){
                 embed.addField(messageService.get(context, "audit.message.deleted-content.title"),
                         MessageUtil.substringTo(oldContent, Embed.Field.MAX_VALUE_LENGTH), true);
             }
@@ -91,7 +91,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MESSAGE_CLEAR)
     public static class MessageClearAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             Long count = action.getAttribute(COUNT);
             if(count == null){
                 return;
@@ -113,7 +113,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_JOIN)
     public static class MemberJoinAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             embed.description(messageService.format(context, "audit.member.join.description",
                     getUserReference(context, action.user())));
             addTimestamp(context, action, embed);
@@ -123,7 +123,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_LEAVE)
     public static class MemberLeaveAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             embed.description(messageService.format(context, "audit.member.leave.description",
                     getUserReference(context, action.user())));
             addTimestamp(context, action, embed);
@@ -133,7 +133,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_KICK)
     public static class MemberKickAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             String reason = action.getAttribute(REASON);
             NamedReference target = action.target();
             if(target == null || reason == null){
@@ -151,7 +151,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_BAN)
     public static class MemberBanAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             String reason = action.getAttribute(REASON);
             NamedReference target = action.target();
             if(target == null || reason == null){
@@ -169,7 +169,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_UNMUTE)
     public static class MemberUnmuteAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             NamedReference target = action.target();
             if(target == null){
                 return;
@@ -183,7 +183,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_MUTE)
     public static class MemberMuteAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             Instant delay = action.getAttribute(DELAY);
             String reason = action.getAttribute(REASON);
             NamedReference target = action.target();
@@ -215,7 +215,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_ROLE_ADD)
     public static class MemberRoleAddAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             String url = action.getAttribute(AVATAR_URL);
             Collection<Snowflake> roleIds = action.getAttribute(ROLE_IDS);
             if(url == null || roleIds == null){
@@ -234,7 +234,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_ROLE_REMOVE)
     public static class MemberRoleRemoveAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             String url = action.getAttribute(AVATAR_URL);
             Collection<Snowflake> roleIds = action.getAttribute(ROLE_IDS);
             if(url == null || roleIds == null){
@@ -253,7 +253,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_AVATAR_UPDATE)
     public static class MemberAvatarUpdateAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             String url = action.getAttribute(AVATAR_URL);
             String oldUrl = action.getAttribute(OLD_AVATAR_URL);
             if(oldUrl == null || url == null){
@@ -271,7 +271,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.MEMBER_NICKNAME_UPDATE)
     public static class MemberNicknameUpdate extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             String url = action.getAttribute(AVATAR_URL);
             String oldNickname = action.getAttribute(OLD_NICKNAME);
             String newNickname = action.getAttribute(NEW_NICKNAME);
@@ -293,7 +293,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.REACTION_ADD)
     public static class ReactionAddAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             Snowflake messageId = action.getAttribute(MESSAGE_ID);
             ReactionEmoji emoji = action.getAttribute(REACTION_EMOJI);
             if(messageId == null || emoji == null){
@@ -311,7 +311,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.REACTION_REMOVE)
     public static class ReactionRemoveAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             Snowflake messageId = action.getAttribute(MESSAGE_ID);
             ReactionEmoji emoji = action.getAttribute(REACTION_EMOJI);
             if(messageId == null || emoji == null){
@@ -329,7 +329,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.REACTION_REMOVE_ALL)
     public static class ReactionRemoveAllAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             Snowflake messageId = action.getAttribute(MESSAGE_ID);
             if(messageId == null){
                 return;
@@ -348,7 +348,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.VOICE_JOIN)
     public static class VoiceJoinAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             embed.description(messageService.format(context, "audit.voice.join.description",
                     getUserReference(context, action.user()), getShortReference(context, action.channel())));
             addTimestamp(context, action, embed);
@@ -358,7 +358,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.VOICE_LEAVE)
     public static class VoiceLeaveAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             embed.description(messageService.format(context, "audit.voice.leave.description",
                     getUserReference(context, action.user()), getShortReference(context, action.channel())));
             addTimestamp(context, action, embed);
@@ -368,7 +368,7 @@ public class AuditProviders{
     @ForwardAuditProvider(AuditActionType.VOICE_MOVE)
     public static class VoiceMoveAuditProvider extends BaseAuditProvider{
         @Override
-        protected void build(AuditAction action, ContextView context, MessageCreateSpec.Builder spec, EmbedCreateSpec.Builder embed){
+        protected void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed){
             NamedReference oldChannel = action.getAttribute(OLD_CHANNEL);
             if(oldChannel == null){
                 return;
@@ -2,24 +2,31 @@ package inside.audit;
 
 import discord4j.common.util.Snowflake;
 import inside.Settings;
-import inside.data.entity.AuditAction;
+import inside.data.entity.*;
 import inside.data.repository.AuditActionRepository;
-import inside.data.service.EntityRetriever;
+import inside.data.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.*;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.*;
+import reactor.util.context.Context;
 import reactor.util.function.Tuple2;
 
+import javax.annotation.*;
 import java.io.InputStream;
-import java.time.Instant;
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+// actions are queued, written in batches by the audit thread and then delivered in order per guild
 @Service
 public class AuditServiceImpl implements AuditService{
+    private static final Logger log = Loggers.getLogger(AuditServiceImpl.class);
 
     private final EntityRetriever entityRetriever;
 
@@ -27,14 +34,55 @@ public class AuditServiceImpl implements AuditService{
 
     private final Settings settings;
 
+    private final PersistenceScheduler persistenceScheduler;
+
+    private final AuditLogSender auditLogSender;
+
+    private final RetentionCleaner retentionCleaner;
+
+    private final BlockingDeque<Entry> queue;
+
+    // only accessed by the audit thread
+    private final Map<Snowflake, Lane> lanes = new HashMap<>();
+
+    private long lastLaneSweep = System.nanoTime();
+
+    // room in the lanes, taken before an action leaves the queue and given back once it is delivered
+    private final Semaphore deliveryPermits;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private final LongAdder lagNanos = new LongAdder();
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder spilled = new LongAdder();
+
     private Map<AuditActionType, AuditProvider> providers;
 
     public AuditServiceImpl(@Autowired EntityRetriever entityRetriever,
                             @Autowired AuditActionRepository repository,
-                            @Autowired Settings settings){
+                            @Autowired Settings settings,
+                            @Autowired PersistenceScheduler persistenceScheduler,
+                            @Autowired AuditLogSender auditLogSender,
+                            @Autowired RetentionCleaner retentionCleaner){
         this.entityRetriever = entityRetriever;
         this.repository = repository;
         this.settings = settings;
+        this.persistenceScheduler = persistenceScheduler;
+        this.auditLogSender = auditLogSender;
+        this.retentionCleaner = retentionCleaner;
+
+        queue = new LinkedBlockingDeque<>(settings.getAudit().getQueueCapacity());
+        deliveryPermits = new Semaphore(settings.getAudit().getDeliveryCapacity());
+        thread = new Thread(this::process, "inside-audit");
+        thread.setDaemon(true);
     }
 
     @Autowired(required = false)
@@ -44,18 +92,176 @@ public class AuditServiceImpl implements AuditService{
         ));
     }
 
+    @PostConstruct
+    public void start(){
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException{
+        running = false;
+        thread.join(Duration.ofSeconds(10).toMillis());
+    }
+
     @Override
-    @Transactional
     public Mono<Void> save(AuditAction action, List<Tuple2<String, InputStream>> attachments){
         AuditProvider forwardProvider = providers.get(action.type());
-        if(forwardProvider != null){
-            if(settings.getDiscord().isAuditLogSaving()){
-                repository.save(action);
+        if(forwardProvider == null){
+            return Mono.error(new NoSuchElementException("Missed audit provider for type: " + action.type()));
+        }
+
+        return Mono.deferContextual(ctx -> {
+            Entry entry = new Entry(action, attachments, forwardProvider, Context.of(ctx), System.nanoTime());
+            if(queue.offerLast(entry)){
+                return Mono.empty();
+            }
+
+            return switch(settings.getAudit().getOverflowPolicy()){
+                case DROP_OLDEST -> Mono.fromRunnable(() -> {
+                    while(!queue.offerLast(entry)){
+                        if(queue.pollFirst() != null){
+                            dropped.increment();
+                        }
+                    }
+                });
+                case BLOCK -> Mono.fromCallable(() -> {
+                    queue.putLast(entry);
+                    return entry;
+                }).subscribeOn(Schedulers.boundedElastic()).then();
+                case SPILL -> Mono.fromRunnable(() -> {
+                    spilled.increment();
+                    if(settings.getDiscord().isAuditLogSaving()){
+                        repository.save(action);
+                    }
+                }).subscribeOn(persistenceScheduler.get()).then();
+            };
+        });
+    }
+
+    private void process(){
+        int batchSize = settings.getPersistence().getWriteBatchSize();
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while(running || !queue.isEmpty()){
+            try{
+                // with full lanes the actions stay in the queue and the overflow policy applies
+                if(!deliveryPermits.tryAcquire(1, TimeUnit.SECONDS)){
+                    continue;
+                }
+
+                evictIdleLanes();
+
+                Entry first = queue.poll(1, TimeUnit.SECONDS);
+                if(first == null){
+                    deliveryPermits.release();
+                    continue;
+                }
+
+                batch.add(first);
+                int room = deliveryPermits.drainPermits();
+                int taken = queue.drainTo(batch, Math.min(batchSize - 1, room));
+                deliveryPermits.release(room - taken);
+
+                if(settings.getDiscord().isAuditLogSaving()){
+                    try{
+                        repository.saveAll(batch.stream().map(Entry::action).collect(Collectors.toList()));
+                    }catch(Throwable t){ // still delivered to the log channel
+                        log.error("Failed to save batch of " + batch.size() + " audit actions", t);
+                    }
+                }
+
+                for(Entry entry : batch){
+                    Lane lane = lanes.computeIfAbsent(entry.action().guildId(), this::createLane);
+                    lane.lastUsed = System.nanoTime();
+                    Sinks.EmitResult result = lane.sink.tryEmitNext(entry);
+                    if(result.isFailure()){
+                        deliveryPermits.release();
+                        log.error("Failed to hand audit action over to its lane: {}", result);
+                    }
+                }
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }catch(Throwable t){
+                log.error("Failed to process batch of " + batch.size() + " audit actions", t);
+            }finally{
+                batch.clear();
             }
-            return entityRetriever.getAuditConfigById(action.guildId())
-                    .flatMap(config -> forwardProvider.send(config, action, attachments));
         }
-        return Mono.error(new NoSuchElementException("Missed audit provider for type: " + action.type()));
+    }
+
+    // completing the sink delivers the buffered actions and ends the lane's subscription,
+    // the next action of the guild starts a new lane
+    private void evictIdleLanes(){
+        long now = System.nanoTime();
+        long idleTimeout = settings.getAudit().getLaneIdleTimeout().toNanos();
+        if(now - lastLaneSweep < Math.min(idleTimeout, TimeUnit.MINUTES.toNanos(1))){
+            return;
+        }
+
+        lastLaneSweep = now;
+        lanes.values().removeIf(lane -> {
+            if(now - lane.lastUsed < idleTimeout){
+                return false;
+            }
+            lane.sink.tryEmitComplete();
+            return true;
+        });
+    }
+
+    // actions arriving within the flush window are sent together
+    private Lane createLane(Snowflake guildId){
+        Sinks.Many<Entry> lane = Sinks.many().unicast().onBackpressureBuffer();
+        Duration window = settings.getAudit().getFlushWindow();
+        Flux<List<Entry>> batches = window.isZero()
+                ? lane.asFlux().map(List::of)
+                : lane.asFlux().bufferTimeout(AuditLogSender.maxEmbeds, window).onBackpressureBuffer();
+
+        batches.concatMap(batch -> entityRetriever.getAuditConfigById(guildId)
+                        .flatMap(config -> deliver(config, batch))
+                        .onErrorResume(t -> Mono.fromRunnable(() -> log.error("Failed to deliver audit actions", t)))
+                        .doFinally(signal -> {
+                            long now = System.nanoTime();
+                            for(Entry entry : batch){
+                                long lag = now - entry.queued();
+                                lagNanos.add(lag);
+                                delivered.increment();
+                                maxLagNanos.accumulateAndGet(lag, Math::max);
+                            }
+                            deliveryPermits.release(batch.size());
+                        }))
+                .subscribe();
+        return new Lane(lane);
+    }
+
+    private Mono<Void> deliver(AuditConfig config, List<Entry> batch){
+        List<AuditLogSender.Part> parts = batch.stream()
+                .filter(entry -> config.isEnabled(entry.action().type()))
+                .map(entry -> new AuditLogSender.Part(entry.provider().createEmbed(entry.action(), entry.context()),
+                        entry.attachments()))
+                .collect(Collectors.toList());
+
+        if(parts.isEmpty()){
+            return Mono.empty();
+        }
+        return auditLogSender.send(config, batch.get(0).context(), parts);
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    private void logMetrics(){
+        long count = delivered.sumThenReset();
+        long lag = lagNanos.sumThenReset();
+        long maxLag = maxLagNanos.getAndSet(0);
+        long droppedCount = dropped.sumThenReset();
+        long spilledCount = spilled.sumThenReset();
+        if(droppedCount > 0 || spilledCount > 0){
+            log.warn("Audit queue overflow, dropped: {}, spilled: {}", droppedCount, spilledCount);
+        }
+        if(log.isDebugEnabled()){
+            log.debug("Queue size: {}, in delivery: {}, delivered: {}, average lag: {} ms, max lag: {} ms",
+                    queue.size(), settings.getAudit().getDeliveryCapacity() - deliveryPermits.availablePermits(), count,
+                    count == 0 ? 0 : Duration.ofNanos(lag / count).toMillis(),
+                    Duration.ofNanos(maxLag).toMillis());
+        }
     }
 
     @Override
@@ -70,8 +276,19 @@ public class AuditServiceImpl implements AuditService{
 
     @Override
     @Scheduled(cron = "0 0 */4 * * *")
-    @Transactional
     public void cleanUp(){
-        repository.deleteAllByTimestampBefore(Instant.now().minus(settings.getAudit().getHistoryKeep()));
+        retentionCleaner.deleteBefore("audit_action", Instant.now().minus(settings.getAudit().getHistoryKeep()));
+    }
+
+    private static class Lane{
+        private final Sinks.Many<Entry> sink;
+        private long lastUsed;
+
+        private Lane(Sinks.Many<Entry> sink){
+            this.sink = sink;
+        }
     }
+
+    private record Entry(AuditAction action, List<Tuple2<String, InputStream>> attachments,
+                         AuditProvider provider, Context context, long queued){}
 }
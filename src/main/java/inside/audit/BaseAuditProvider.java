@@ -1,24 +1,15 @@
 package inside.audit;
 
-import discord4j.core.object.entity.*;
-import discord4j.core.spec.*;
-import discord4j.rest.util.Permission;
-import inside.data.entity.*;
+import discord4j.core.spec.EmbedCreateSpec;
+import inside.data.entity.AuditAction;
 import inside.data.entity.base.NamedReference;
-import inside.service.*;
-import inside.util.DiscordUtil;
+import inside.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
-import reactor.core.publisher.Mono;
 import reactor.util.context.ContextView;
-import reactor.util.function.Tuple2;
 
-import java.io.InputStream;
 import java.time.format.*;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import static inside.util.ContextUtil.*;
-import static reactor.function.TupleUtils.function;
 
 public abstract class BaseAuditProvider implements AuditProvider{
     public static final String MESSAGE_TXT = "message.txt";
@@ -26,36 +17,13 @@ public abstract class BaseAuditProvider implements AuditProvider{
     @Autowired
     protected MessageService messageService;
 
-    @Autowired
-    protected DiscordService discordService;
-
     @Override
-    public Mono<Void> send(AuditConfig config, AuditAction action, List<Tuple2<String, InputStream>> attachments){
-        return Mono.deferContextual(ctx -> Mono.justOrEmpty(config.logChannelId())
-                .flatMap(discordService::getTextChannelById)
-                .filter(ignored -> config.isEnabled(action.type()))
-                .filterWhen(channel -> channel.getEffectivePermissions(discordService.gateway().getSelfId())
-                        .map(set -> set.contains(Permission.SEND_MESSAGES))
-                        .filterWhen(bool -> bool ? Mono.just(true) : discordService.gateway()
-                                .getGuildById(action.guildId())
-                                .flatMap(Guild::getOwner)
-                                .flatMap(User::getPrivateChannel)
-                                .flatMap(dm -> dm.createMessage(messageService.format(ctx, "audit.permission-denied",
-                                        DiscordUtil.getChannelMention(config.logChannelId()
-                                                .orElseThrow(IllegalStateException::new))))) // asserted above
-                                .thenReturn(false)))
-                .flatMap(channel -> {
-                    var messageSpec = MessageCreateSpec.builder();
-                    var embedSpec = EmbedCreateSpec.builder()
-                            .color(action.type().color);
-
-                    build(action, ctx, messageSpec, embedSpec);
+    public EmbedCreateSpec createEmbed(AuditAction action, ContextView context){
+        var embedSpec = EmbedCreateSpec.builder()
+                .color(action.type().color);
 
-                    return channel.createMessage(messageSpec.addEmbed(embedSpec.build()).files(attachments.stream()
-                            .map(function(MessageCreateFields.File::of))
-                            .collect(Collectors.toList())).build());
-                })
-                .then());
+        build(action, context, embedSpec);
+        return embedSpec.build();
     }
 
     protected void addTimestamp(ContextView context, AuditAction action, EmbedCreateSpec.Builder embed){
@@ -91,7 +59,5 @@ public abstract class BaseAuditProvider implements AuditProvider{
                 (channel ? "<#" : "<@") + reference.id() + ">");
     }
 
-    protected abstract void build(AuditAction action, ContextView context,
-                                  MessageCreateSpec.Builder spec,
-                                  EmbedCreateSpec.Builder embed);
+    protected abstract void build(AuditAction action, ContextView context, EmbedCreateSpec.Builder embed);
 }
@@ -0,0 +1,11 @@
+package inside.audit;
+
+// what happens to an audit action when the dispatch queue is full
+public enum OverflowPolicy{
+    // the oldest queued action is discarded
+    DROP_OLDEST,
+    // the caller waits for a free slot
+    BLOCK,
+    // the action is only written to the database and never delivered
+    SPILL
+}
@@ -0,0 +1,82 @@
+package inside.command;
+
+import inside.command.model.CommandInfo;
+import reactor.util.annotation.Nullable;
+
+import java.util.Map;
+
+// immutable open addressing table of case-folded alias -> command
+// lookups hash the characters of the message in place, no substring is needed
+final class AliasIndex{
+    static final AliasIndex empty = new AliasIndex(Map.of());
+
+    private static final int minCapacity = 16;
+
+    private final String[] aliases; // null marks a free slot
+    private final Entry[] entries;
+
+    AliasIndex(Map<String, Entry> entries){
+        int capacity = minCapacity;
+        while(capacity < entries.size() * 2){
+            capacity <<= 1;
+        }
+
+        this.aliases = new String[capacity];
+        this.entries = new Entry[capacity];
+        entries.forEach((alias, entry) -> {
+            String folded = fold(alias);
+            int i = slot(folded, 0, folded.length());
+            aliases[i] = folded;
+            this.entries[i] = entry;
+        });
+    }
+
+    static String fold(CharSequence text){
+        StringBuilder builder = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++){
+            builder.append(fold(text.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    private static char fold(char c){
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int hash(CharSequence text, int start, int end){
+        int h = 0;
+        for(int i = start; i < end; i++){
+            h = 31 * h + fold(text.charAt(i));
+        }
+        return h ^ h >>> 16;
+    }
+
+    private static boolean matches(String alias, CharSequence text, int start, int end){
+        if(alias.length() != end - start){
+            return false;
+        }
+        for(int i = 0; i < alias.length(); i++){
+            if(alias.charAt(i) != fold(text.charAt(start + i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the slot of the alias or the free slot where it would be
+    private int slot(CharSequence text, int start, int end){
+        int mask = aliases.length - 1;
+        int i = hash(text, start, end) & mask;
+        while(aliases[i] != null && !matches(aliases[i], text, start, end)){
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    @Nullable
+    Entry get(CharSequence text, int start, int end){
+        return entries[slot(text, start, end)];
+    }
+
+    record Entry(Command command, CommandInfo info){}
+}
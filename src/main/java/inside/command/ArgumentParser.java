@@ -0,0 +1,58 @@
+package inside.command;
+
+import inside.command.model.*;
+import inside.util.ArgumentTokenizer;
+
+import java.util.*;
+
+// binds the tokens of the argument text to the command parameters
+public final class ArgumentParser{
+
+    private ArgumentParser(){
+    }
+
+    public static Result parse(CommandParam[] params, CharSequence text, int start, int end, List<CommandOption> result){
+        Objects.requireNonNull(params, "params");
+        Objects.requireNonNull(result, "result");
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(text, start, end);
+        int index = 0;
+        boolean satisfied = false;
+        while(true){
+            boolean hasNext = tokenizer.hasNext();
+            if(index >= params.length && hasNext){
+                return Result.MANY_ARGUMENTS;
+            }else if(!hasNext){
+                break;
+            }
+
+            CommandParam param = params[index];
+            if(param.optional() || index >= params.length - 1 || params[index + 1].optional()){
+                satisfied = true;
+            }
+
+            if(param.variadic()){ // the rest of the text as is
+                result.add(new CommandOption(param, text, tokenizer.position(), tokenizer.end(), false));
+                break;
+            }
+
+            tokenizer.next();
+            if(!satisfied && !tokenizer.hasNext()){
+                return Result.FEW_ARGUMENTS;
+            }
+
+            result.add(new CommandOption(param, text, tokenizer.tokenStart(),
+                    tokenizer.tokenEnd(), tokenizer.isEscaped()));
+            index++;
+        }
+
+        // a reply may still supply the first argument, the caller decides
+        return !satisfied && params.length > 0 && !params[0].optional() ? Result.MISSING_ARGUMENTS : Result.OK;
+    }
+
+    public enum Result{
+        OK,
+        MISSING_ARGUMENTS,
+        FEW_ARGUMENTS,
+        MANY_ARGUMENTS
+    }
+}
@@ -20,32 +20,39 @@ public final class CommandHolder{
 
     private final Map<Command, CommandInfo> commandInfo = new LinkedHashMap<>();
 
+    // rebuilt once after the registration
+    private AliasIndex index = AliasIndex.empty;
+
+    private BKTree aliasTree = new BKTree();
+
     public CommandHolder(@Autowired MessageService messageService){
         this.messageService = messageService;
     }
 
     @Autowired(required = false)
     private void registerCommands(List<Command> commands){
+        Map<String, AliasIndex.Entry> aliases = new HashMap<>();
         for(Command command : commands){
-            CommandInfo info = compile(command);
+            CommandInfo info = compile(command, aliases);
             this.commands.put(info.text(), command);
             this.commandInfo.put(command, info);
         }
+        index = new AliasIndex(aliases);
+        aliasTree = new BKTree(this.commandInfo.values().stream()
+                .flatMap(info -> Arrays.stream(info.text()))
+                .toList());
     }
 
-    private CommandInfo compile(Command command){
+    private CommandInfo compile(Command command, Map<String, AliasIndex.Entry> aliases){
         DiscordCommand meta = command.getAnnotation();
         Preconditions.requireState(meta.key().length > 0);
-        commandInfo.forEach((command0, commandInfo0) -> {
-            for(String s : meta.key()){
-                Preconditions.requireState(s.matches("^[\\S-]{1,32}$"), "Incorrect command alias '" + s + "' format!");
+        for(String s : meta.key()){
+            Preconditions.requireState(s.matches("^[\\S-]{1,32}$"), "Incorrect command alias '" + s + "' format!");
 
-                for(String s1 : commandInfo0.text()){
-                    Preconditions.requireState(!s1.equals(s), () -> "Duplicate command alias '" + s + "' in '" +
-                            command.getClass().getCanonicalName() + "' and '" + command0.getClass().getCanonicalName() + "'!");
-                }
-            }
-        });
+            AliasIndex.Entry other = aliases.get(AliasIndex.fold(s));
+            Preconditions.requireState(other == null || other.command() == command, () -> "Duplicate command alias '" + s + "' in '" +
+                    command.getClass().getCanonicalName() + "' and '" + other.command().getClass().getCanonicalName() + "'!");
+        }
 
         // get 'en' parameter text for validation and option search
         String paramText = messageService.get(Context.of(KEY_LOCALE, messageService.getDefaultLocale()), meta.params());
@@ -82,7 +89,11 @@ public final class CommandHolder{
             }
         }
 
-        return new CommandInfo(meta.key(), meta.params(), meta.description(), params, meta.permissions());
+        CommandInfo info = new CommandInfo(meta.key(), meta.params(), meta.description(), params, meta.permissions());
+        for(String s : meta.key()){
+            aliases.put(AliasIndex.fold(s), new AliasIndex.Entry(command, info));
+        }
+        return info;
     }
 
     public Map<String[], Command> getCommandsMap(){
@@ -93,29 +104,32 @@ public final class CommandHolder{
         return Collections.unmodifiableMap(commandInfo);
     }
 
-    public Optional<Command> getCommand(String key){
+    public Optional<Command> getCommand(CharSequence key){
         Objects.requireNonNull(key, "key");
-        return commands.entrySet().stream()
-                .filter(entry -> contains(entry.getKey(), key))
-                .map(Map.Entry::getValue)
-                .findFirst();
+        return getCommand(key, 0, key.length());
     }
 
-    public Optional<CommandInfo> getCommandInfo(String key){
+    // the alias is the [start, end) range of the text, compared ignoring case
+    public Optional<Command> getCommand(CharSequence text, int start, int end){
+        Objects.requireNonNull(text, "text");
+        Objects.checkFromToIndex(start, end, text.length());
+        return Optional.ofNullable(index.get(text, start, end)).map(AliasIndex.Entry::command);
+    }
+
+    public Optional<CommandInfo> getCommandInfo(CharSequence key){
         Objects.requireNonNull(key, "key");
-        return commands.entrySet().stream()
-                .filter(entry -> contains(entry.getKey(), key))
-                .map(Map.Entry::getValue)
-                .map(commandInfo::get)
-                .findFirst();
+        return getCommandInfo(key, 0, key.length());
     }
 
-    private static <T> boolean contains(T[] arr, T value){
-        for(T t : arr){
-            if(Objects.equals(t, value)){
-                return true;
-            }
-        }
-        return false;
+    public Optional<CommandInfo> getCommandInfo(CharSequence text, int start, int end){
+        Objects.requireNonNull(text, "text");
+        Objects.checkFromToIndex(start, end, text.length());
+        return Optional.ofNullable(index.get(text, start, end)).map(AliasIndex.Entry::info);
+    }
+
+    // the alias nearest to the text by edit distance, for 'did you mean' responses
+    public Optional<String> getClosestAlias(CharSequence text){
+        Objects.requireNonNull(text, "text");
+        return Optional.ofNullable(aliasTree.closest(text));
     }
 }
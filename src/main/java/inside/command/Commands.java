@@ -72,17 +72,13 @@ public class Commands{
     }
 
     public static abstract class OwnerCommand extends Command{
+        @Autowired
+        protected AdminService adminService;
+
         @Override
         public Mono<Boolean> filter(CommandEnvironment env){
             Member member = env.getAuthorAsMember();
-
-            Mono<Boolean> isOwner = member.getGuild().flatMap(Guild::getOwner)
-                    .map(member::equals);
-
-            Mono<Boolean> isGuildManager = member.getHighestRole()
-                    .map(role -> role.getPermissions().contains(Permission.MANAGE_GUILD));
-
-            return BooleanUtils.or(isOwner, isGuildManager);
+            return BooleanUtils.or(adminService.isOwner(member), adminService.isGuildManager(member));
         }
     }
 
@@ -105,16 +101,7 @@ public class Commands{
     @DiscordCommand(key = {"help", "?", "man"}, params = "command.help.params", description = "command.help.description")
     public static class HelpCommand extends Command{
         @Autowired
-        private CommandHolder commandHolder;
-
-        private final Lazy<Map<String, List<Command>>> categoriesWithCommands = Lazy.of(() ->
-                commandHolder.getCommandInfoMap().keySet().stream().collect(Collectors.groupingBy(command -> {
-                    String canonicalName = command.getClass()
-                            .getSuperclass().getCanonicalName();
-                    String key = canonicalName.toLowerCase(Locale.ROOT).substring(canonicalName.lastIndexOf(".") + 1,
-                            canonicalName.lastIndexOf("C"));
-                    return key.isEmpty() ? "common" : key;
-                })));
+        private HelpPages helpPages;
 
         @Override
         public Mono<Void> execute(CommandEnvironment env, CommandInteraction interaction){
@@ -123,69 +110,34 @@ public class Commands{
                     .map(OptionValue::asString)
                     .map(String::toLowerCase);
 
-            Collector<CommandInfo, StringBuilder, StringBuilder> categoryCollector = Collector.of(StringBuilder::new,
-                    (builder, info) -> {
-                        builder.append("**");
-                        builder.append(info.text()[0]);
-                        builder.append("**");
-                        if(info.text().length > 1){
-                            StringJoiner joiner = new StringJoiner(", ");
-                            for(int i = 1; i < info.text().length; i++){
-                                joiner.add(info.text()[i]);
-                            }
-                            builder.append(" (").append(joiner).append(")");
-                        }
-                        if(info.params().length > 0){
-                            builder.append(" ");
-                            builder.append(messageService.get(env.context(), info.paramText()));
-                        }
-                        builder.append(" - ");
-                        builder.append(messageService.get(env.context(), info.description()));
-                        builder.append("\n");
-                    },
-                    StringBuilder::append);
-
-            Mono<Void> categories = Flux.fromIterable(categoriesWithCommands.get().entrySet())
-                    .distinct(Map.Entry::getKey)
-                    .filterWhen(entry -> Flux.fromIterable(entry.getValue())
-                            .filterWhen(command -> command.filter(env))
-                            .hasElements())
-                    .map(entry -> {
-                        String canonicalName = entry.getValue().get(0).getClass()
-                                .getSuperclass().getCanonicalName();
-                        return String.format("• %s (`%s`)%n", messageService.get(env.context(), canonicalName), entry.getKey());
-                    })
+            HelpPages.Pages pages = helpPages.get(env.context().get(KEY_LOCALE));
+
+            Mono<Void> categories = Flux.fromIterable(pages.categories().values())
+                    .filterWhen(entry -> isPermitted(env, entry))
+                    .map(HelpPages.Category::line)
                     .collect(Collectors.joining())
                     .flatMap(categoriesStr -> messageService.info(env, spec ->
-                            spec.title(messageService.get(env.context(), "command.help"))
+                            spec.title(pages.title())
                                     .description(categoriesStr)));
 
-            Mono<Void> snowHelp = Mono.defer(() -> {
-                String unwrapped = category.orElse("");
-                return categoriesWithCommands.get().keySet().stream()
-                        .min(Comparator.comparingInt(s -> Strings.levenshtein(s, unwrapped)))
-                        .map(s -> messageService.err(env, "command.help.found-closest", s))
-                        .orElse(messageService.err(env, "command.help.unknown"));
-            });
+            Mono<Void> snowHelp = Mono.defer(() -> helpPages.getClosestCategory(category.orElse(""))
+                    .map(s -> messageService.err(env, "command.help.found-closest", s))
+                    .orElse(messageService.err(env, "command.help.unknown")));
 
             return Mono.justOrEmpty(category)
                     .switchIfEmpty(categories.then(Mono.never()))
-                    .mapNotNull(categoriesWithCommands.get()::get)
+                    .mapNotNull(pages.categories()::get)
                     .switchIfEmpty(snowHelp.then(Mono.never()))
-                    .filterWhen(entry -> Flux.fromIterable(entry)
-                            .filterWhen(command -> command.filter(env))
-                            .hasElements())
+                    .filterWhen(entry -> isPermitted(env, entry))
                     .switchIfEmpty(messageService.err(env, "command.help.unknown").then(Mono.never()))
-                    .flatMapMany(Flux::fromIterable)
-                    .map(commandHolder.getCommandInfoMap()::get)
-                    .sort((o1, o2) -> Arrays.compare(o1.text(), o2.text()))
-                    .collect(categoryCollector)
-                    .map(builder -> builder.append(messageService.get(env.context(), "command.help.disclaimer.user"))
-                            .append("\n").append(messageService.get(env.context(), "command.help.disclaimer.help")))
-                    .flatMap(str -> messageService.info(env, spec -> spec.title(messageService.get(env.context(),
-                            categoriesWithCommands.get().get(category.orElseThrow(AssertionError::new)).get(0).getClass()
-                                    .getSuperclass().getCanonicalName()))
-                            .description(str.toString())));
+                    .flatMap(entry -> messageService.info(env, spec -> spec.title(entry.title())
+                            .description(entry.page())));
+        }
+
+        private Mono<Boolean> isPermitted(CommandEnvironment env, HelpPages.Category category){
+            return Flux.fromIterable(category.commands())
+                    .filterWhen(command -> command.filter(env))
+                    .hasElements();
         }
     }
 
@@ -953,20 +905,28 @@ public class Commands{
                             if(value == null){
                                 return messageService.err(env, "command.settings.prefix-absent");
                             }
-                            prefixes.add(value);
-                            return messageService.text(env, "command.settings.added", value);
+                            return messageService.text(env, "command.settings.added", value)
+                                    .and(entityRetriever.update(guildConfig, c -> {
+                                        List<String> copy = new ArrayList<>(c.prefixes());
+                                        copy.add(value);
+                                        c.prefixes(copy);
+                                    }));
                         }else if(mode.equalsIgnoreCase("remove")){
                             if(value == null){
                                 return messageService.err(env, "command.settings.prefix-absent");
                             }
-                            prefixes.remove(value);
-                            return messageService.text(env, "command.settings.removed", value);
+                            return messageService.text(env, "command.settings.removed", value)
+                                    .and(entityRetriever.update(guildConfig, c -> {
+                                        List<String> copy = new ArrayList<>(c.prefixes());
+                                        copy.remove(value);
+                                        c.prefixes(copy);
+                                    }));
                         }else{ // clear
                             // ignore value, it doesn't matter
-                            prefixes.clear();
-                            return messageService.text(env, "command.settings.prefix.clear");
+                            return messageService.text(env, "command.settings.prefix.clear")
+                                    .and(entityRetriever.update(guildConfig, c -> c.prefixes(List.of())));
                         }
-                    }).and(entityRetriever.save(guildConfig)));
+                    }));
         }
     }
 
@@ -1002,11 +962,10 @@ public class Commands{
                                     .orElse(messageService.err(env, "command.settings.timezone.unknown"));
                         }
 
-                        guildConfig.timeZone(timeZone);
                         return Mono.deferContextual(ctx -> messageService.text(env,
                                 "command.settings.timezone.update", ctx.<Locale>get(KEY_TIMEZONE)))
                                 .contextWrite(ctx -> ctx.put(KEY_TIMEZONE, timeZone))
-                                .and(entityRetriever.save(guildConfig));
+                                .and(entityRetriever.update(guildConfig, c -> c.timeZone(timeZone)));
                     }));
         }
     }
@@ -1039,11 +998,10 @@ public class Commands{
                             return messageService.text(env, "command.settings.locale.all", all);
                         }
 
-                        guildConfig.locale(locale);
                         return Mono.deferContextual(ctx -> messageService.text(env, "command.settings.locale.update",
                                 ctx.<Locale>get(KEY_LOCALE).getDisplayName()))
                                 .contextWrite(ctx -> ctx.put(KEY_LOCALE, locale))
-                                .and(entityRetriever.save(guildConfig));
+                                .and(entityRetriever.update(guildConfig, c -> c.locale(locale)));
                     });
         }
     }
@@ -1,5 +1,6 @@
 package inside.command;
 
+import com.github.benmanes.caffeine.cache.*;
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.entity.*;
 import discord4j.core.object.entity.channel.GuildMessageChannel;
@@ -12,8 +13,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.*;
 import reactor.function.TupleUtils;
-import reactor.util.function.Tuple2;
+import reactor.util.function.*;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.Collectors;
@@ -27,6 +29,12 @@ public class DefaultCommandHandler implements CommandHandler{
 
     private final CommandHolder commandHolder;
 
+    // rebuilt when the prefixes of the guild change
+    private final Cache<Snowflake, PrefixMatcher> prefixMatchers = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .maximumSize(10000)
+            .build();
+
     public DefaultCommandHandler(@Autowired EntityRetriever entityRetriever,
                                  @Autowired MessageService messageService,
                                  @Autowired CommandHolder commandHolder){
@@ -42,87 +50,51 @@ public class DefaultCommandHandler implements CommandHandler{
         Snowflake selfId = environment.getClient().getSelfId();
         Mono<Guild> guild = environment.getMessage().getGuild();
 
-        Mono<String> prefix = entityRetriever.getGuildConfigById(guildId)
+        Mono<PrefixMatcher> matcher = entityRetriever.getGuildConfigById(guildId)
                 .switchIfEmpty(entityRetriever.createGuildConfig(guildId))
-                .flatMap(guildConfig -> Mono.justOrEmpty(guildConfig.prefixes().stream()
-                        .filter(message::startsWith)
-                        .findFirst()));
-
-        Mono<String> mention = Mono.just(message)
-                .filter(s -> environment.getMessage().getUserMentionIds().contains(selfId))
-                .filter(s -> s.startsWith(DiscordUtil.getMemberMention(selfId)) ||
-                        s.startsWith(DiscordUtil.getUserMention(selfId)))
-                .map(s -> s.startsWith(DiscordUtil.getMemberMention(selfId)) ? DiscordUtil.getMemberMention(selfId) :
-                        DiscordUtil.getUserMention(selfId));
-
-        Mono<Tuple2<String, String>> text = prefix.switchIfEmpty(mention)
-                .map(s -> message.substring(s.length()).trim())
-                .zipWhen(s -> Mono.just(s.contains(" ") ? s.substring(0, s.indexOf(" ")) : s).map(String::toLowerCase))
+                .map(guildConfig -> getPrefixMatcher(guildId, selfId, guildConfig.prefixes()));
+
+        Mono<Tuple2<PrefixMatcher, String>> found = matcher
+                .flatMap(matcher0 -> Mono.justOrEmpty(matcher0.find(message)).map(s -> Tuples.of(matcher0, s)))
+                .cache();
+
+        // empty when the bot was mentioned
+        Mono<String> prefix = found.filter(TupleUtils.predicate((matcher0, s) -> !matcher0.isMention(s)))
+                .map(Tuple2::getT2);
+
+        Mono<CommandRange> range = found.map(Tuple2::getT2)
+                .map(s -> CommandRange.of(message, s.length()))
                 .cache();
 
-        Mono<Void> suggestion = text.map(Tuple2::getT1).flatMap(commandName -> commandHolder.getCommandInfoMap().values().stream()
-                .flatMap(commandInfo -> Arrays.stream(commandInfo.text()))
-                .min(Comparator.comparingInt(s -> Strings.levenshtein(s, commandName)))
+        Mono<Void> suggestion = range.map(r -> message.substring(r.start(), r.end()).toLowerCase())
+                .flatMap(commandName -> commandHolder.getClosestAlias(commandName)
                 .map(s -> messageService.err(environment, "command.response.found-closest", s))
                 .orElse(prefix.map(GuildConfig::formatPrefix).flatMap(str ->
                         messageService.err(environment, "command.response.unknown", str)))
                 .doFirst(() -> messageService.awaitEdit(environment.getMessage().getId())));
 
-        return text.flatMap(TupleUtils.function((commandstr, cmdkey) -> Mono.justOrEmpty(commandHolder.getCommand(cmdkey))
+        return range.flatMap(r -> Mono.justOrEmpty(commandHolder.getCommand(message, r.start(), r.end()))
                 .switchIfEmpty(suggestion.then(Mono.empty()))
                 .flatMap(command -> {
                     CommandInfo info = commandHolder.getCommandInfoMap().get(command);
                     List<CommandOption> result = new ArrayList<>();
-                    String argstr = commandstr.contains(" ") ? commandstr.substring(cmdkey.length() + 1) : "";
-                    int index = 0;
-                    boolean satisfied = false;
+                    String cmdkey = message.substring(r.start(), r.end());
                     String argsres = info.paramText().isEmpty() ? "command.response.incorrect-arguments.empty" :
                             "command.response.incorrect-arguments";
 
-                    if(argstr.matches("^(?i)(help|\\?)$")){
+                    if(isHelpRequest(message, r.end(), r.textEnd())){
                         return command.filter(environment).flatMap(bool -> bool ? command.help(environment) : Mono.empty());
                     }
 
-                    while(true){
-                        if(index >= info.params().length && !argstr.isEmpty()){
-                            messageService.awaitEdit(environment.getMessage().getId());
-                            return prefix.map(GuildConfig::formatPrefix)
-                                    .flatMap(str -> messageService.error(environment, "command.response.many-arguments.title",
-                                            argsres, str, cmdkey, messageService.get(environment.context(), info.paramText())));
-                        }else if(argstr.isEmpty()){
-                            break;
-                        }
-
-                        if(info.params()[index].optional() || index >= info.params().length - 1 || info.params()[index + 1].optional()){
-                            satisfied = true;
-                        }
-
-                        if(info.params()[index].variadic()){
-                            result.add(new CommandOption(info.params()[index], argstr));
-                            break;
-                        }
-
-                        int next = findSpace(argstr);
-                        if(next == -1){
-                            if(!satisfied){
-                                messageService.awaitEdit(environment.getMessage().getId());
-                                return prefix.map(GuildConfig::formatPrefix)
-                                        .flatMap(str -> messageService.error(environment, "command.response.few-arguments.title",
-                                                argsres, str, cmdkey, messageService.get(environment.context(), info.paramText())));
-                            }
-                            result.add(new CommandOption(info.params()[index], argstr));
-                            break;
-                        }else{
-                            String arg = argstr.substring(0, next);
-                            argstr = argstr.substring(arg.length() + 1);
-                            if(arg.isBlank()) continue;
-                            result.add(new CommandOption(info.params()[index], arg));
-                        }
-
-                        index++;
+                    ArgumentParser.Result parsed = ArgumentParser.parse(info.params(), message, r.end(), r.textEnd(), result);
+                    if(parsed == ArgumentParser.Result.MANY_ARGUMENTS){
+                        messageService.awaitEdit(environment.getMessage().getId());
+                        return prefix.map(GuildConfig::formatPrefix)
+                                .flatMap(str -> messageService.error(environment, "command.response.many-arguments.title",
+                                        argsres, str, cmdkey, messageService.get(environment.context(), info.paramText())));
                     }
 
-                    if(!satisfied && info.params().length > 0 && !info.params()[0].optional() &&
+                    if(parsed == ArgumentParser.Result.FEW_ARGUMENTS || parsed == ArgumentParser.Result.MISSING_ARGUMENTS &&
                             environment.getMessage().getMessageReference().isEmpty()){
                         messageService.awaitEdit(environment.getMessage().getId());
                         return prefix.map(GuildConfig::formatPrefix)
@@ -157,17 +129,47 @@ public class DefaultCommandHandler implements CommandHandler{
                             .flatMap(c -> c.execute(environment, new CommandInteraction(cmdkey, result)))
                             .doFirst(() -> messageService.removeEdit(environment.getMessage().getId()))
                             .onErrorResume(missingAccess, fallback);
-                })));
+                }));
+    }
+
+    private PrefixMatcher getPrefixMatcher(Snowflake guildId, Snowflake selfId, List<String> prefixes){
+        PrefixMatcher matcher = prefixMatchers.getIfPresent(guildId);
+        if(matcher == null || !matcher.isBuiltFrom(prefixes, selfId)){
+            matcher = new PrefixMatcher(prefixes, selfId);
+            prefixMatchers.put(guildId, matcher);
+        }
+        return matcher;
     }
 
-    private int findSpace(String text){
-        for(int i = 0; i < text.length(); i++){
-            char c = text.charAt(i);
-            if(Character.isWhitespace(c) && (i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1)) ||
-                    i - 1 != -1 && !Character.isWhitespace(text.charAt(i -1)))){
-                return i;
+    // the whole argument text is 'help' or '?'
+    private static boolean isHelpRequest(String text, int start, int end){
+        while(start < end && Character.isWhitespace(text.charAt(start))){
+            start++;
+        }
+        while(end > start && Character.isWhitespace(text.charAt(end - 1))){
+            end--;
+        }
+        return end - start == 1 && text.charAt(start) == '?' ||
+                end - start == 4 && text.regionMatches(true, start, "help", 0, 4);
+    }
+
+    // bounds of the command word and of the text without trailing whitespace, the message is not copied
+    private record CommandRange(int start, int end, int textEnd){
+
+        static CommandRange of(String message, int from){
+            int textEnd = message.length();
+            while(textEnd > from && Character.isWhitespace(message.charAt(textEnd - 1))){
+                textEnd--;
+            }
+            int start = from;
+            while(start < textEnd && Character.isWhitespace(message.charAt(start))){
+                start++;
+            }
+            int end = start;
+            while(end < textEnd && !Character.isWhitespace(message.charAt(end))){
+                end++;
             }
+            return new CommandRange(start, end, textEnd);
         }
-        return -1;
     }
 }
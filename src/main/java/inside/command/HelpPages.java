@@ -0,0 +1,110 @@
+package inside.command;
+
+import inside.command.model.CommandInfo;
+import inside.service.MessageService;
+import inside.util.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.util.context.Context;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static inside.util.ContextUtil.KEY_LOCALE;
+
+// help texts rendered once per locale, requests only check the permissions of the commands
+@Component
+public class HelpPages{
+
+    private final CommandHolder commandHolder;
+
+    private final MessageService messageService;
+
+    // category key -> commands, available after the command registration
+    private final Lazy<Map<String, List<Command>>> categories;
+
+    private final Lazy<BKTree> categoryTree;
+
+    private final Map<Locale, Pages> pages = new ConcurrentHashMap<>();
+
+    public HelpPages(@Autowired CommandHolder commandHolder,
+                     @Autowired MessageService messageService){
+        this.commandHolder = commandHolder;
+        this.messageService = messageService;
+
+        categories = Lazy.of(() -> commandHolder.getCommandInfoMap().keySet().stream()
+                .collect(Collectors.groupingBy(HelpPages::categoryKey, LinkedHashMap::new, Collectors.toList())));
+        categoryTree = Lazy.of(() -> new BKTree(categories.get().keySet()));
+    }
+
+    private static String categoryKey(Command command){
+        String canonicalName = command.getClass().getSuperclass().getCanonicalName();
+        String key = canonicalName.toLowerCase(Locale.ROOT).substring(canonicalName.lastIndexOf(".") + 1,
+                canonicalName.lastIndexOf("C"));
+        return key.isEmpty() ? "common" : key;
+    }
+
+    public Pages get(Locale locale){
+        Objects.requireNonNull(locale, "locale");
+        return pages.computeIfAbsent(locale, this::render);
+    }
+
+    public Optional<String> getClosestCategory(String key){
+        Objects.requireNonNull(key, "key");
+        return Optional.ofNullable(categoryTree.get().closest(key));
+    }
+
+    // the pages of every locale are rendered again on the next request
+    public void invalidate(){
+        pages.clear();
+    }
+
+    private Pages render(Locale locale){
+        Context ctx = Context.of(KEY_LOCALE, locale);
+        String disclaimer = messageService.get(ctx, "command.help.disclaimer.user") + "\n" +
+                messageService.get(ctx, "command.help.disclaimer.help");
+
+        Map<String, Category> rendered = new LinkedHashMap<>();
+        categories.get().forEach((key, commands) -> {
+            String title = messageService.get(ctx, commands.get(0).getClass().getSuperclass().getCanonicalName());
+
+            StringBuilder page = new StringBuilder();
+            commands.stream()
+                    .map(commandHolder.getCommandInfoMap()::get)
+                    .sorted((o1, o2) -> Arrays.compare(o1.text(), o2.text()))
+                    .forEach(info -> appendCommand(page, ctx, info));
+            page.append(disclaimer);
+
+            rendered.put(key, new Category(key, title, String.format("• %s (`%s`)%n", title, key),
+                    List.copyOf(commands), page.toString()));
+        });
+
+        return new Pages(messageService.get(ctx, "command.help"), Collections.unmodifiableMap(rendered));
+    }
+
+    private void appendCommand(StringBuilder builder, Context ctx, CommandInfo info){
+        builder.append("**");
+        builder.append(info.text()[0]);
+        builder.append("**");
+        if(info.text().length > 1){
+            StringJoiner joiner = new StringJoiner(", ");
+            for(int i = 1; i < info.text().length; i++){
+                joiner.add(info.text()[i]);
+            }
+            builder.append(" (").append(joiner).append(")");
+        }
+        if(info.params().length > 0){
+            builder.append(" ");
+            builder.append(messageService.get(ctx, info.paramText()));
+        }
+        builder.append(" - ");
+        builder.append(messageService.get(ctx, info.description()));
+        builder.append("\n");
+    }
+
+    public record Pages(String title, Map<String, Category> categories){}
+
+    // line is the entry of the category list, page is the full category help
+    public record Category(String key, String title, String line, List<Command> commands, String page){}
+}
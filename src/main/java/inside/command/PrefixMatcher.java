@@ -0,0 +1,113 @@
+package inside.command;
+
+import discord4j.common.util.Snowflake;
+import inside.util.DiscordUtil;
+import reactor.util.annotation.Nullable;
+
+import java.util.*;
+
+// trie of the guild prefixes and the bot mention forms
+// a message that is not a command is rejected on its first character without allocation
+final class PrefixMatcher{
+    private final Snowflake selfId;
+
+    private final String[] prefixes;
+
+    // prefixes in the configured order, then the mentions; a lower index wins
+    private final String[] entries;
+
+    // node 0 is the root
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] terminal; // entry index or -1
+
+    private int size = 1;
+
+    PrefixMatcher(List<String> prefixes, Snowflake selfId){
+        this.selfId = selfId;
+        this.prefixes = prefixes.toArray(new String[0]);
+
+        entries = Arrays.copyOf(this.prefixes, this.prefixes.length + 2);
+        entries[this.prefixes.length] = DiscordUtil.getUserMention(selfId);
+        entries[this.prefixes.length + 1] = DiscordUtil.getMemberMention(selfId);
+
+        int capacity = 1;
+        for(String entry : entries){
+            capacity += entry.length();
+        }
+        labels = new char[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        terminal = new int[capacity];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        Arrays.fill(terminal, -1);
+
+        for(int i = 0; i < entries.length; i++){
+            insert(entries[i], i);
+        }
+    }
+
+    private void insert(String entry, int index){
+        int node = 0;
+        for(int i = 0; i < entry.length(); i++){
+            char c = entry.charAt(i);
+            int child = child(node, c);
+            if(child == -1){
+                child = size++;
+                labels[child] = c;
+                nextSibling[child] = firstChild[node];
+                firstChild[node] = child;
+            }
+            node = child;
+        }
+        if(terminal[node] == -1){ // duplicates keep the first position
+            terminal[node] = index;
+        }
+    }
+
+    private int child(int node, char c){
+        int child = firstChild[node];
+        while(child != -1 && labels[child] != c){
+            child = nextSibling[child];
+        }
+        return child;
+    }
+
+    // the matched prefix or mention at the start of the text
+    @Nullable
+    String find(CharSequence text){
+        int best = terminal[0];
+        int node = 0;
+        for(int i = 0; i < text.length(); i++){
+            node = child(node, text.charAt(i));
+            if(node == -1){
+                break;
+            }
+
+            int index = terminal[node];
+            if(index != -1 && (best == -1 || index < best)){
+                best = index;
+            }
+        }
+        return best == -1 ? null : entries[best];
+    }
+
+    boolean isMention(String entry){
+        return entry == entries[prefixes.length] || entry == entries[prefixes.length + 1];
+    }
+
+    // the configured list is changed in place, so compare the contents
+    boolean isBuiltFrom(List<String> prefixes, Snowflake selfId){
+        if(!this.selfId.equals(selfId) || prefixes.size() != this.prefixes.length){
+            return false;
+        }
+        for(int i = 0; i < this.prefixes.length; i++){
+            if(!this.prefixes[i].equals(prefixes.get(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+}
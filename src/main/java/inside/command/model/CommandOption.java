@@ -1,6 +1,6 @@
 package inside.command.model;
 
-import inside.util.Strings;
+import inside.util.*;
 import reactor.util.annotation.Nullable;
 
 import java.util.*;
@@ -9,13 +9,40 @@ import java.util.stream.Collectors;
 public class CommandOption{
     private final CommandParam param;
     @Nullable
-    private final String value;
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+    private final boolean escaped;
+    @Nullable
+    private String value;
 
     public CommandOption(CommandParam param, @Nullable String value){
         this.param = Objects.requireNonNull(param, "param");
+        this.source = value;
+        this.start = 0;
+        this.end = value != null ? value.length() : 0;
+        this.escaped = false;
         this.value = value;
     }
 
+    // the value is copied out of the message when the command reads it
+    public CommandOption(CommandParam param, CharSequence source, int start, int end, boolean escaped){
+        this.param = Objects.requireNonNull(param, "param");
+        this.source = Objects.requireNonNull(source, "source");
+        Objects.checkFromToIndex(start, end, source.length());
+        this.start = start;
+        this.end = end;
+        this.escaped = escaped;
+    }
+
+    @Nullable
+    private String value(){
+        if(value == null && source != null){
+            value = escaped ? ArgumentTokenizer.unquote(source, start, end) : source.subSequence(start, end).toString();
+        }
+        return value;
+    }
+
     public String getName(){
         return param.name();
     }
@@ -29,7 +56,7 @@ public class CommandOption{
     }
 
     public Optional<OptionValue> getValue(){
-        return Optional.ofNullable(value).filter(Strings::isNotEmpty).map(OptionValue::new);
+        return Optional.ofNullable(value()).filter(Strings::isNotEmpty).map(OptionValue::new);
     }
 
     public List<OptionValue> getChoices(){
@@ -45,6 +72,7 @@ public class CommandOption{
     }
 
     public Optional<OptionValue> getChoice(){
+        String value = value();
         return value != null ? getChoice(value) : Optional.empty();
     }
 
@@ -52,7 +80,7 @@ public class CommandOption{
     public String toString(){
         return "CommandOption{" +
                 "param=" + param +
-                ", value='" + value + '\'' +
+                ", value='" + value() + '\'' +
                 '}';
     }
 }
@@ -23,25 +23,6 @@ public class ActivityConfig extends ConfigEntity{
     @Column(name = "role_id")
     private String roleId;
 
-    @Transient
-    public boolean resetIfAfter(Activity activity){
-        Objects.requireNonNull(activity, "activity");
-        Instant last = activity.lastSentMessage();
-        if(last != null && last.isBefore(Instant.now().minus(keepCountingDuration))){
-            activity.messageCount(0);
-            return true;
-        }
-        return false;
-    }
-
-    @Transient
-    public boolean isActive(Activity activity){
-        Objects.requireNonNull(activity, "activity");
-        Instant last = activity.lastSentMessage();
-        return last != null && last.isAfter(Instant.now().minus(keepCountingDuration)) &&
-                activity.messageCount() >= messageBarrier;
-    }
-
     public Duration keepCountingDuration(){
         return keepCountingDuration;
     }
@@ -47,9 +47,9 @@ public class AuditAction extends GuildEntity{
     })
     private NamedReference channel;
 
-    @Type(type = "json")
-    @Column(columnDefinition = "json")
-    private Map<String, Object> attributes;
+    @Type(type = "attribute_map")
+    @Column(name = "attribute_data")
+    private AttributeMap attributes;
 
     public AuditAction(){}
 
@@ -98,23 +98,18 @@ public class AuditAction extends GuildEntity{
         this.channel = Objects.requireNonNull(channel, "channel");
     }
 
-    public Map<String, Object> attributes(){
+    public AttributeMap attributes(){
         return attributes;
     }
 
-    public void attributes(Map<String, Object> attributes){
+    public void attributes(AttributeMap attributes){
         this.attributes = Objects.requireNonNull(attributes, "attributes");
     }
 
     @Transient
     @Nullable
-    @SuppressWarnings("unchecked")
     public <T> T getAttribute(Attribute<T> key){
-        if(attributes == null || attributes.isEmpty()){
-            return null;
-        }
-        Object value = attributes.get(key.name);
-        return value != null ? (T)value : null;
+        return attributes != null ? attributes.get(key) : null;
     }
 
     @Override
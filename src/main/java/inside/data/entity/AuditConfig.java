@@ -32,13 +32,14 @@ public class AuditConfig extends ConfigEntity{
 
     public Set<AuditActionType> types(){
         if(types == null){
-            types = new HashSet<>();
+            types = Set.of();
         }
         return types;
     }
 
+    // read without a lock by every audit action, changed only by replacing the snapshot
     public void types(Set<AuditActionType> types){
-        this.types = Objects.requireNonNull(types, "types");
+        this.types = Set.copyOf(Objects.requireNonNull(types, "types"));
     }
 
     @Transient
@@ -36,8 +36,9 @@ public class GuildConfig extends GuildEntity{ // or ConfigEntity?
         return prefixes;
     }
 
+    // read without a lock on every message, changed only by replacing the snapshot
     public void prefixes(List<String> prefixes){
-        this.prefixes = Objects.requireNonNull(prefixes, "prefixes");
+        this.prefixes = List.copyOf(Objects.requireNonNull(prefixes, "prefixes"));
     }
 
     public Locale locale(){
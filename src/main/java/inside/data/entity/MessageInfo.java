@@ -2,6 +2,7 @@ package inside.data.entity;
 
 import discord4j.common.util.Snowflake;
 import inside.data.entity.base.GuildEntity;
+import reactor.util.annotation.Nullable;
 
 import javax.persistence.*;
 import java.io.Serial;
@@ -20,8 +21,12 @@ public class MessageInfo extends GuildEntity{
     @Column(name = "user_id")
     private long userId;
 
-    @Column(columnDefinition = "text")
-    private String content;
+    @Column(name = "content_data", columnDefinition = "bytea")
+    private byte[] content;
+
+    // text format, rewritten to content_data in batches
+    @Column(name = "content", columnDefinition = "text")
+    private String textContent;
 
     @Column
     private Instant timestamp;
@@ -42,12 +47,18 @@ public class MessageInfo extends GuildEntity{
         this.userId = Objects.requireNonNull(userId, "userId").asLong();
     }
 
-    public String content(){
+    public byte[] content(){
         return content;
     }
 
-    public void content(String content){
+    public void content(byte[] content){
         this.content = Objects.requireNonNull(content, "content");
+        this.textContent = null;
+    }
+
+    @Nullable
+    public String textContent(){
+        return textContent;
     }
 
     public Instant timestamp(){
@@ -63,7 +74,7 @@ public class MessageInfo extends GuildEntity{
         return "MessageInfo{" +
                 "messageId=" + messageId +
                 ", userId=" + userId +
-                ", content='" + content + '\'' +
+                ", content=" + (content != null ? content.length + " bytes" : "'" + textContent + '\'') +
                 ", timestamp=" + timestamp +
                 "} " + super.toString();
     }
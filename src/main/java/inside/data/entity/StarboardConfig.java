@@ -21,6 +21,10 @@ public class StarboardConfig extends ConfigEntity{
     @Column(name = "starboard_channel_id")
     private String starboardChannelId;
 
+    // the starboard channel whose history was scanned into the starboard table
+    @Column(name = "indexed_channel_id")
+    private String indexedChannelId;
+
     @Type(type = "json")
     @Column(columnDefinition = "json")
     private List<EmojiData> emojis;
@@ -41,12 +45,21 @@ public class StarboardConfig extends ConfigEntity{
         this.starboardChannelId = Objects.requireNonNull(starboardChannelId, "starboardChannelId").asString();
     }
 
+    public Optional<Snowflake> indexedChannelId(){
+        return Optional.ofNullable(indexedChannelId).map(Snowflake::of);
+    }
+
+    public void indexedChannelId(Snowflake indexedChannelId){
+        this.indexedChannelId = Objects.requireNonNull(indexedChannelId, "indexedChannelId").asString();
+    }
+
     public List<EmojiData> emojis(){
         return emojis;
     }
 
+    // read without a lock on every reaction, changed only by replacing the snapshot
     public void emojis(List<EmojiData> emojis){
-        this.emojis = Objects.requireNonNull(emojis, "emojis");
+        this.emojis = List.copyOf(Objects.requireNonNull(emojis, "emojis"));
     }
 
     @Override
@@ -54,6 +67,7 @@ public class StarboardConfig extends ConfigEntity{
         return "StarboardConfig{" +
                 "lowerStarBarrier=" + lowerStarBarrier +
                 ", starboardChannelId='" + starboardChannelId + '\'' +
+                ", indexedChannelId='" + indexedChannelId + '\'' +
                 ", emojis=" + emojis +
                 "} " + super.toString();
     }
@@ -1,5 +1,6 @@
 package inside.data.entity.base;
 
+import inside.audit.AttributeMap;
 import inside.data.type.*;
 import org.hibernate.annotations.*;
 
@@ -14,6 +15,8 @@ import java.util.Objects;
                 defaultForType = ZoneId.class),
         @TypeDef(name = "duration", typeClass = DurationType.class,
                 defaultForType = Duration.class),
+        @TypeDef(name = "attribute_map", typeClass = AttributeMapType.class,
+                defaultForType = AttributeMap.class),
 })
 @MappedSuperclass
 public abstract class BaseEntity implements Serializable{
@@ -29,6 +32,11 @@ public abstract class BaseEntity implements Serializable{
         return id;
     }
 
+    // a rolled back insert leaves the generated id behind, a retry must insert the entity as new again
+    public void resetId(){
+        id = 0;
+    }
+
     @Override
     public boolean equals(Object o){
         if(this == o) return true;
@@ -5,6 +5,7 @@ import inside.data.repository.base.GuildRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 
 @Repository
 public interface LocalMemberRepository extends GuildRepository<LocalMember>{
@@ -12,4 +13,7 @@ public interface LocalMemberRepository extends GuildRepository<LocalMember>{
     LocalMember findByUserIdAndGuildId(long userId, long guildId);
 
     void deleteAllByActivityLastSentMessageBefore(Instant timestamp);
+
+    List<LocalMember> findAllByGuildIdAndActivityMessageCountGreaterThanEqualAndActivityLastSentMessageAfter(
+            long guildId, int messageCount, Instant lastSentMessage);
 }
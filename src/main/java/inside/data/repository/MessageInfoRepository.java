@@ -2,9 +2,10 @@ package inside.data.repository;
 
 import inside.data.entity.MessageInfo;
 import inside.data.repository.base.GuildRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
-import java.time.Instant;
+import java.util.List;
 
 @Repository
 public interface MessageInfoRepository extends GuildRepository<MessageInfo>{
@@ -13,5 +14,5 @@ public interface MessageInfoRepository extends GuildRepository<MessageInfo>{
 
     void deleteByMessageId(long messageId);
 
-    void deleteAllByTimestampBefore(Instant timestamp);
+    List<MessageInfo> findAllByContentIsNullAndIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 }
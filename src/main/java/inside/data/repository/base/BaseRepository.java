@@ -1,10 +1,15 @@
 package inside.data.repository.base;
 
 import inside.data.entity.base.BaseEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 
+import java.util.List;
+
 @NoRepositoryBean
 public interface BaseRepository<T extends BaseEntity> extends JpaRepository<T, Long>{
 
+    // keyset pagination, the page request is only used as a limit
+    List<T> findAllByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 }
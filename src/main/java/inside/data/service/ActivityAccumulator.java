@@ -0,0 +1,208 @@
+package inside.data.service;
+
+// open addressing table of (guild id, user id) -> message count and last message time
+// reset marks that the stored count is outdated and must be replaced instead of incremented
+public class ActivityAccumulator{
+    private static final int minCapacity = 256;
+
+    private long[] guildIds;
+    private long[] userIds;
+    private int[] counts; // zero marks a free slot
+    private long[] lastSent;
+    private boolean[] resets;
+    private int size;
+
+    public ActivityAccumulator(){
+        allocate(minCapacity);
+    }
+
+    private void allocate(int capacity){
+        guildIds = new long[capacity];
+        userIds = new long[capacity];
+        counts = new int[capacity];
+        lastSent = new long[capacity];
+        resets = new boolean[capacity];
+        size = 0;
+    }
+
+    private static int hash(long guildId, long userId){
+        long h = guildId * 0x9E3779B97F4A7C15L + userId;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int)h;
+    }
+
+    public synchronized void increment(long guildId, long userId, long timestamp, boolean reset){
+        int mask = counts.length - 1;
+        int i = hash(guildId, userId) & mask;
+        while(counts[i] != 0){
+            if(guildIds[i] == guildId && userIds[i] == userId){
+                if(reset){
+                    counts[i] = 1;
+                    resets[i] = true;
+                }else{
+                    counts[i]++;
+                }
+                lastSent[i] = Math.max(lastSent[i], timestamp);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        guildIds[i] = guildId;
+        userIds[i] = userId;
+        counts[i] = 1;
+        lastSent[i] = timestamp;
+        resets[i] = reset;
+        size++;
+        if(size > counts.length >>> 1){
+            rehash(counts.length << 1);
+        }
+    }
+
+    private void rehash(int capacity){
+        long[] oldGuildIds = guildIds, oldUserIds = userIds, oldLastSent = lastSent;
+        int[] oldCounts = counts;
+        boolean[] oldResets = resets;
+        allocate(capacity);
+        for(int j = 0; j < oldCounts.length; j++){
+            if(oldCounts[j] != 0){
+                insert(oldGuildIds[j], oldUserIds[j], oldCounts[j], oldLastSent[j], oldResets[j]);
+            }
+        }
+    }
+
+    private void insert(long guildId, long userId, int count, long timestamp, boolean reset){
+        int mask = counts.length - 1;
+        int i = hash(guildId, userId) & mask;
+        while(counts[i] != 0){
+            i = (i + 1) & mask;
+        }
+        guildIds[i] = guildId;
+        userIds[i] = userId;
+        counts[i] = count;
+        lastSent[i] = timestamp;
+        resets[i] = reset;
+        size++;
+    }
+
+    public synchronized int size(){
+        return size;
+    }
+
+    public synchronized void remove(long guildId){
+        long[] oldGuildIds = guildIds, oldUserIds = userIds, oldLastSent = lastSent;
+        int[] oldCounts = counts;
+        boolean[] oldResets = resets;
+        allocate(counts.length);
+        for(int j = 0; j < oldCounts.length; j++){
+            if(oldCounts[j] != 0 && oldGuildIds[j] != guildId){
+                insert(oldGuildIds[j], oldUserIds[j], oldCounts[j], oldLastSent[j], oldResets[j]);
+            }
+        }
+    }
+
+    // puts back a snapshot that failed to be written, newer increments were counted after it
+    public synchronized void restore(Snapshot snapshot){
+        for(int k = 0; k < snapshot.size(); k++){
+            long guildId = snapshot.guildIds[k];
+            long userId = snapshot.userIds[k];
+            int mask = counts.length - 1;
+            int i = hash(guildId, userId) & mask;
+            while(counts[i] != 0 && (guildIds[i] != guildId || userIds[i] != userId)){
+                i = (i + 1) & mask;
+            }
+
+            if(counts[i] != 0){
+                if(!resets[i]){ // a newer reset makes the older count outdated
+                    counts[i] += snapshot.counts[k];
+                    resets[i] = snapshot.resets[k];
+                }
+                lastSent[i] = Math.max(lastSent[i], snapshot.lastSent[k]);
+                continue;
+            }
+
+            insert(guildId, userId, snapshot.counts[k], snapshot.lastSent[k], snapshot.resets[k]);
+            if(size > counts.length >>> 1){
+                rehash(counts.length << 1);
+            }
+        }
+    }
+
+    // swaps the table out so increments are not blocked while the snapshot is written
+    public Snapshot drain(){
+        long[] drainedGuildIds, drainedUserIds, drainedLastSent;
+        int[] drainedCounts;
+        boolean[] drainedResets;
+        int drainedSize;
+        synchronized(this){
+            if(size == 0){
+                return Snapshot.empty;
+            }
+            drainedGuildIds = guildIds;
+            drainedUserIds = userIds;
+            drainedCounts = counts;
+            drainedLastSent = lastSent;
+            drainedResets = resets;
+            drainedSize = size;
+            allocate(Math.max(minCapacity, Integer.highestOneBit(drainedSize) << 2));
+        }
+
+        Snapshot snapshot = new Snapshot(drainedSize);
+        int k = 0;
+        for(int j = 0; j < drainedCounts.length; j++){
+            if(drainedCounts[j] != 0){
+                snapshot.guildIds[k] = drainedGuildIds[j];
+                snapshot.userIds[k] = drainedUserIds[j];
+                snapshot.counts[k] = drainedCounts[j];
+                snapshot.lastSent[k] = drainedLastSent[j];
+                snapshot.resets[k] = drainedResets[j];
+                k++;
+            }
+        }
+        return snapshot;
+    }
+
+    public static class Snapshot{
+        static final Snapshot empty = new Snapshot(0);
+
+        private final long[] guildIds;
+        private final long[] userIds;
+        private final int[] counts;
+        private final long[] lastSent;
+        private final boolean[] resets;
+
+        private Snapshot(int size){
+            guildIds = new long[size];
+            userIds = new long[size];
+            counts = new int[size];
+            lastSent = new long[size];
+            resets = new boolean[size];
+        }
+
+        public int size(){
+            return counts.length;
+        }
+
+        public long guildId(int i){
+            return guildIds[i];
+        }
+
+        public long userId(int i){
+            return userIds[i];
+        }
+
+        public int count(int i){
+            return counts[i];
+        }
+
+        public long lastSent(int i){
+            return lastSent[i];
+        }
+
+        public boolean reset(int i){
+            return resets[i];
+        }
+    }
+}
@@ -1,41 +1,124 @@
 package inside.data.service;
 
+import com.github.benmanes.caffeine.cache.*;
 import inside.Settings;
-import inside.data.entity.base.BaseEntity;
+import inside.data.entity.base.*;
 import inside.data.repository.base.BaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.*;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.*;
 import reactor.util.annotation.Nullable;
 
+import java.util.*;
+import java.util.function.*;
+
 public abstract class BaseEntityService<K, V extends BaseEntity, R extends BaseRepository<V>> implements EntityService<K, V>{
 
     protected final R repository;
 
     protected final Settings settings;
 
-    protected BaseEntityService(R repository, Settings settings){
+    // empty optional is a cached miss.
+    // a cached entity is one instance shared by all handlers, it is never copied. it must be changed only
+    // through update(), which applies the change under the entity lock on the persistence scheduler;
+    // save() reads it under the same lock, so a concurrent save never writes a half applied change
+    protected final Cache<K, Optional<V>> cache;
+
+    @Autowired
+    protected PersistenceScheduler persistenceScheduler;
+
+    protected BaseEntityService(R repository, Settings settings, String cacheName){
         this.repository = repository;
         this.settings = settings;
+
+        Settings.Cache config = settings.getCache();
+        long hitExpire = config.getExpireAfterWrite().toNanos();
+        long missExpire = config.getMissExpireAfterWrite().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize(cacheName))
+                .expireAfter(new Expiry<K, Optional<V>>(){
+                    @Override
+                    public long expireAfterCreate(K key, Optional<V> value, long currentTime){
+                        return value.isPresent() ? hitExpire : missExpire;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration){
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration){
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     @Override
     public Mono<V> find(K id){
-        return Mono.defer(() -> Mono.justOrEmpty(find0(id)));
+        return Mono.defer(() -> {
+            Optional<V> cached = cache.getIfPresent(id);
+            if(cached != null){
+                return Mono.justOrEmpty(cached);
+            }
+            return Mono.fromCallable(() -> cache.get(id, k -> Optional.ofNullable(find0(k))))
+                    .subscribeOn(persistenceScheduler.get())
+                    .flatMap(Mono::justOrEmpty);
+        });
     }
 
     @Override
-    @Transactional
     public Flux<V> getAll(){
-        return Flux.defer(() -> Flux.fromIterable(repository.findAll()));
+        return getAll(settings.getPersistence().getPageSize());
+    }
+
+    // the next page is loaded on demand, each in its own transaction
+    @Override
+    public Flux<V> getAll(int pageSize){
+        Pageable limit = PageRequest.of(0, pageSize);
+        return Flux.<List<V>, Long>generate(() -> 0L, (lastId, sink) -> {
+                    List<V> page = repository.findAllByIdGreaterThanOrderByIdAsc(lastId, limit);
+                    if(page.isEmpty()){
+                        sink.complete();
+                        return lastId;
+                    }
+
+                    sink.next(page);
+                    if(page.size() < pageSize){
+                        sink.complete();
+                    }
+                    return page.get(page.size() - 1).id();
+                })
+                .subscribeOn(persistenceScheduler.get())
+                .flatMapIterable(Function.identity(), 1);
     }
 
     @Nullable
     protected abstract V find0(K id);
 
+    protected abstract K cacheKey(V entity);
+
     @Override
     @Transactional
     public Mono<Void> save(V entity){
-        return Mono.fromRunnable(() -> repository.save(entity));
+        return Mono.fromRunnable(() -> {
+            synchronized(entity){
+                repository.save(entity);
+            }
+            cache.put(cacheKey(entity), Optional.of(entity));
+        }).subscribeOn(persistenceScheduler.get()).then();
+    }
+
+    // the last save writes every change applied before it, concurrent updates of one entity are not lost
+    @Override
+    public Mono<Void> update(V entity, Consumer<? super V> updater){
+        return Mono.fromRunnable(() -> {
+            synchronized(entity){
+                updater.accept(entity);
+            }
+        }).subscribeOn(persistenceScheduler.get()).then(Mono.defer(() -> save(entity)));
     }
 
     @Override
@@ -47,7 +130,19 @@ public abstract class BaseEntityService<K, V extends BaseEntity, R extends BaseR
     @Override
     @Transactional
     public Mono<Void> delete(V entity){
-        return Mono.fromRunnable(() -> repository.delete(entity));
+        return Mono.fromRunnable(() -> {
+            repository.delete(entity);
+            cache.invalidate(cacheKey(entity));
+        }).subscribeOn(persistenceScheduler.get()).then();
+    }
+
+    protected void invalidateAll(Predicate<? super V> predicate){
+        cache.asMap().values().removeIf(value -> value.filter(predicate).isPresent());
+    }
+
+    // drops the cached entities of a guild after a bulk delete
+    public void invalidateGuild(long guildId){
+        invalidateAll(entity -> entity instanceof GuildEntity g && g.guildId().asLong() == guildId);
     }
 
     protected void cleanUp(){
@@ -10,13 +10,13 @@ public abstract class BaseLongObjEntityService<V extends BaseEntity, R extends B
         extends BaseEntityService<Long, V, R>
         implements LongObjEntityService<V>{
 
-    protected BaseLongObjEntityService(R repository, Settings settings){
-        super(repository, settings);
+    protected BaseLongObjEntityService(R repository, Settings settings, String cacheName){
+        super(repository, settings, cacheName);
     }
 
     @Override
     public Mono<V> find(long id){
-        return Mono.defer(() -> Mono.justOrEmpty(find0(id)));
+        return find(Long.valueOf(id));
     }
 
     @Nullable
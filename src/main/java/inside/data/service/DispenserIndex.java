@@ -0,0 +1,66 @@
+package inside.data.service;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.reaction.ReactionEmoji;
+import inside.data.entity.EmojiDispenser;
+
+import java.util.*;
+
+// immutable open addressing table of dispenser message id -> (emoji -> role ids)
+// reactions on any other message are rejected by a single probe
+public class DispenserIndex{
+    public static final DispenserIndex empty = new DispenserIndex(List.of());
+
+    private static final int minCapacity = 16;
+
+    private final long[] messageIds; // zero marks a free slot
+    private final Map<ReactionEmoji, List<Snowflake>>[] roleIds;
+
+    @SuppressWarnings("unchecked")
+    public DispenserIndex(Collection<EmojiDispenser> dispensers){
+        int capacity = minCapacity;
+        while(capacity < dispensers.size() * 2){
+            capacity <<= 1;
+        }
+
+        messageIds = new long[capacity];
+        roleIds = new Map[capacity];
+        for(EmojiDispenser dispenser : dispensers){
+            long messageId = dispenser.messageId().asLong();
+            int i = slot(messageId);
+            if(messageIds[i] == 0){
+                messageIds[i] = messageId;
+                roleIds[i] = new HashMap<>();
+            }
+            roleIds[i].computeIfAbsent(ReactionEmoji.of(dispenser.emoji()), k -> new ArrayList<>(1))
+                    .add(dispenser.roleId());
+        }
+    }
+
+    private static int hash(long messageId){
+        long h = messageId * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ h >>> 32);
+    }
+
+    // the slot of the message id or the free slot where it would be
+    private int slot(long messageId){
+        int mask = messageIds.length - 1;
+        int i = hash(messageId) & mask;
+        while(messageIds[i] != 0 && messageIds[i] != messageId){
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    public boolean contains(long messageId){
+        return messageIds[slot(messageId)] != 0;
+    }
+
+    public List<Snowflake> getRoleIds(long messageId, ReactionEmoji emoji){
+        int i = slot(messageId);
+        if(messageIds[i] == 0){
+            return List.of();
+        }
+        return roleIds[i].getOrDefault(emoji, List.of());
+    }
+}
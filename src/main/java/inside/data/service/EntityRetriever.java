@@ -2,10 +2,15 @@ package inside.data.service;
 
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.entity.*;
+import discord4j.core.object.reaction.ReactionEmoji;
 import discord4j.discordjson.json.EmojiData;
 import inside.data.entity.*;
 import reactor.core.publisher.*;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface EntityRetriever{
 
     // guild config
@@ -14,6 +19,8 @@ public interface EntityRetriever{
 
     Mono<Void> save(GuildConfig guildConfig);
 
+    Mono<Void> update(GuildConfig guildConfig, Consumer<? super GuildConfig> updater);
+
     Mono<Void> deleteGuildConfigById(Snowflake guildId);
 
     // admin config
@@ -22,6 +29,8 @@ public interface EntityRetriever{
 
     Mono<Void> save(AdminConfig adminConfig);
 
+    Mono<Void> update(AdminConfig adminConfig, Consumer<? super AdminConfig> updater);
+
     Mono<Void> deleteAdminConfigById(Snowflake guildId);
 
     // audit config
@@ -30,6 +39,8 @@ public interface EntityRetriever{
 
     Mono<Void> save(AuditConfig auditConfig);
 
+    Mono<Void> update(AuditConfig auditConfig, Consumer<? super AuditConfig> updater);
+
     Mono<Void> deleteAuditConfigById(Snowflake guildId);
 
     // member
@@ -42,6 +53,12 @@ public interface EntityRetriever{
 
     Mono<Void> save(LocalMember localMember);
 
+    Mono<Void> update(LocalMember localMember, Consumer<? super LocalMember> updater);
+
+    Flux<LocalMember> getAllActiveLocalMembers(Snowflake guildId, int messageBarrier, Instant after);
+
+    Mono<Void> incrementActivity(Member member, Instant timestamp, boolean reset);
+
     Mono<Void> deleteAllLocalMembersInGuild(Snowflake guildId);
 
     // message info
@@ -50,6 +67,8 @@ public interface EntityRetriever{
 
     Mono<Void> save(MessageInfo messageInfo);
 
+    Mono<Void> update(MessageInfo messageInfo, Consumer<? super MessageInfo> updater);
+
     Mono<Void> delete(MessageInfo messageInfo);
 
     Mono<Void> deleteMessageInfoById(Snowflake messageId);
@@ -62,6 +81,8 @@ public interface EntityRetriever{
 
     Mono<Void> save(StarboardConfig starboardConfig);
 
+    Mono<Void> update(StarboardConfig starboardConfig, Consumer<? super StarboardConfig> updater);
+
     Mono<Void> deleteStarboardConfigById(Snowflake guildId);
 
     // starboard
@@ -72,6 +93,8 @@ public interface EntityRetriever{
 
     Mono<Void> save(Starboard starboard);
 
+    Mono<Void> update(Starboard starboard, Consumer<? super Starboard> updater);
+
     Mono<Void> delete(Starboard starboard);
 
     Mono<Void> deleteAllStarboardsInGuild(Snowflake guildId);
@@ -82,12 +105,16 @@ public interface EntityRetriever{
 
     Mono<Void> save(ActivityConfig activityConfig);
 
+    Mono<Void> update(ActivityConfig activityConfig, Consumer<? super ActivityConfig> updater);
+
     Mono<Void> deleteActivityConfigById(Snowflake guildId);
 
     // emoji dispenser
 
     Flux<EmojiDispenser> getEmojiDispensersById(Snowflake messageId);
 
+    List<Snowflake> getDispensedRoleIds(Snowflake messageId, ReactionEmoji emoji);
+
     Mono<EmojiDispenser> getEmojiDispenserById(Snowflake messageId, Snowflake roleId);
 
     Flux<EmojiDispenser> getAllEmojiDispenserInGuild(Snowflake guildId);
@@ -96,12 +123,16 @@ public interface EntityRetriever{
 
     Mono<Void> save(EmojiDispenser emojiDispenser);
 
+    Mono<Void> update(EmojiDispenser emojiDispenser, Consumer<? super EmojiDispenser> updater);
+
     Mono<Void> deleteEmojiDispenserById(Snowflake messageId, Snowflake roleId);
 
     Mono<Void> delete(EmojiDispenser emojiDispenser);
 
     Mono<Void> deleteAllEmojiDispenserInGuild(Snowflake guildId);
 
+    Mono<Void> purgeGuild(Snowflake guildId);
+
     // factory methods
 
     Mono<GuildConfig> createGuildConfig(Snowflake guildId);
@@ -3,14 +3,20 @@ package inside.data.service;
 import inside.data.entity.base.BaseEntity;
 import reactor.core.publisher.*;
 
+import java.util.function.Consumer;
+
 public interface EntityService<K, V extends BaseEntity>{
 
     Mono<V> find(K id);
 
     Flux<V> getAll();
 
+    Flux<V> getAll(int pageSize);
+
     Mono<Void> save(V entity);
 
+    Mono<Void> update(V entity, Consumer<? super V> updater);
+
     Mono<Void> delete(K id);
 
     Mono<Void> delete(V entity);
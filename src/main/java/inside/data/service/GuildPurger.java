@@ -0,0 +1,101 @@
+package inside.data.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.util.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.*;
+
+// removes everything stored for a guild with one bulk delete per table in a single transaction
+@Component
+public class GuildPurger{
+    private static final Logger log = Loggers.getLogger(GuildPurger.class);
+
+    // children first, admin_action rows go with local_member by the on delete cascade
+    private static final String[] tables = {
+            "starboard",
+            "emoji_dispenser",
+            "message_info",
+            "local_member",
+            "activity",
+            "audit_config",
+            "guild_config",
+            "admin_config",
+            "activity_config",
+            "starboard_config"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final StoreHolder storeHolder;
+
+    private final PersistenceScheduler persistenceScheduler;
+
+    private final AtomicInteger inProgress = new AtomicInteger();
+
+    private final AtomicLong purgedRows = new AtomicLong();
+
+    public GuildPurger(@Autowired JdbcTemplate jdbcTemplate,
+                       @Autowired PlatformTransactionManager transactionManager,
+                       @Autowired StoreHolder storeHolder,
+                       @Autowired PersistenceScheduler persistenceScheduler){
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storeHolder = storeHolder;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+    public Mono<Void> purge(long guildId){
+        return Mono.fromRunnable(() -> {
+            inProgress.incrementAndGet();
+            long start = System.nanoTime();
+            try{
+                // pending writes must not recreate rows after the delete
+                invalidate(guildId);
+                long total = transactionTemplate.execute(status -> {
+                    long count = 0;
+                    for(int i = 0; i < tables.length; i++){
+                        int deleted = jdbcTemplate.update("delete from " + tables[i] + " where guild_id = ?", guildId);
+                        count += deleted;
+                        purgedRows.addAndGet(deleted);
+                        log.debug("Guild {} purge {}/{}: {} rows from {}", guildId, i + 1, tables.length, deleted, tables[i]);
+                    }
+                    return count;
+                });
+                // entities loaded while the purge was running
+                invalidate(guildId);
+                log.info("Purged {} rows of guild {} in {} ms", total, guildId,
+                        Duration.ofNanos(System.nanoTime() - start).toMillis());
+            }finally{
+                inProgress.decrementAndGet();
+            }
+        }).subscribeOn(persistenceScheduler.get()).then();
+    }
+
+    private void invalidate(long guildId){
+        storeHolder.getStarboardService().invalidateGuild(guildId);
+        storeHolder.getEmojiDispenserService().invalidateGuild(guildId);
+        storeHolder.getMessageInfoService().invalidateGuild(guildId);
+        storeHolder.getLocalMemberService().invalidateGuild(guildId);
+        storeHolder.getAuditConfigService().invalidateGuild(guildId);
+        storeHolder.getGuildConfigService().invalidateGuild(guildId);
+        storeHolder.getAdminConfigService().invalidateGuild(guildId);
+        storeHolder.getActivityConfigService().invalidateGuild(guildId);
+        storeHolder.getStarboardConfigService().invalidateGuild(guildId);
+    }
+
+    public int getInProgress(){
+        return inProgress.get();
+    }
+
+    public long getPurgedRows(){
+        return purgedRows.get();
+    }
+}
@@ -0,0 +1,124 @@
+package inside.data.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import inside.Settings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.*;
+import reactor.util.*;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// blocking jdbc calls must not be executed on the gateway event loop
+@Component
+public class PersistenceScheduler{
+    private static final Logger log = Loggers.getLogger(PersistenceScheduler.class);
+
+    private static final int defaultThreadCount = 10;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler scheduler;
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public PersistenceScheduler(@Autowired Settings settings,
+                                @Autowired DataSource dataSource){
+        int threadCount = settings.getPersistence().getThreadCount();
+        if(threadCount <= 0){
+            threadCount = dataSource instanceof HikariDataSource h ? h.getMaximumPoolSize() : defaultThreadCount;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threadCount, threadCount, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(settings.getPersistence().getQueueCapacity()),
+                task -> {
+                    Thread thread = new Thread(task, "inside-persistence-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // a full queue fails the task instead of blocking the caller or running jdbc on the event loop,
+                // subscribeOn() turns the exception into an error signal of the rejected mono
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Persistence queue is full (" +
+                            pool.getQueue().size() + " tasks queued)");
+                }){
+            @Override
+            public void execute(Runnable command){
+                super.execute(new TimedTask(command));
+            }
+
+            @Override
+            protected void beforeExecute(Thread thread, Runnable task){
+                if(task instanceof TimedTask t){
+                    long wait = System.nanoTime() - t.queued;
+                    waitNanos.add(wait);
+                    executed.increment();
+                    maxWaitNanos.accumulateAndGet(wait, Math::max);
+                }
+            }
+        };
+
+        scheduler = Schedulers.fromExecutorService(executor, "inside-persistence");
+    }
+
+    public Scheduler get(){
+        return scheduler;
+    }
+
+    public int getQueueSize(){
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount(){
+        return executor.getActiveCount();
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    private void logMetrics(){
+        long count = executed.sumThenReset();
+        long wait = waitNanos.sumThenReset();
+        long maxWait = maxWaitNanos.getAndSet(0);
+        long rejectedCount = rejected.sumThenReset();
+        if(rejectedCount > 0){
+            log.warn("Rejected {} tasks, persistence queue capacity exceeded", rejectedCount);
+        }
+        if(log.isDebugEnabled()){
+            log.debug("Queue size: {}, active: {}, executed: {}, average wait: {} ms, max wait: {} ms",
+                    getQueueSize(), getActiveCount(), count,
+                    count == 0 ? 0 : Duration.ofNanos(wait / count).toMillis(),
+                    Duration.ofNanos(maxWait).toMillis());
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        scheduler.dispose();
+    }
+
+    private static class TimedTask implements Runnable{
+        private final Runnable delegate;
+        private final long queued = System.nanoTime();
+
+        private TimedTask(Runnable delegate){
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run(){
+            delegate.run();
+        }
+    }
+}
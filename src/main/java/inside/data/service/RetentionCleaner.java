@@ -0,0 +1,66 @@
+package inside.data.service;
+
+import inside.Settings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.util.*;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.concurrent.locks.LockSupport;
+
+// expired rows are deleted in small autocommitted chunks instead of one entity-by-entity transaction
+// the pause between chunks leaves the connection pool and the table locks to the live traffic
+@Component
+public class RetentionCleaner{
+    private static final Logger log = Loggers.getLogger(RetentionCleaner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Settings settings;
+
+    private volatile boolean stopped;
+
+    public RetentionCleaner(@Autowired JdbcTemplate jdbcTemplate,
+                            @Autowired Settings settings){
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+    }
+
+    // table is never user input
+    public long deleteBefore(String table, Instant timestamp){
+        Settings.Persistence config = settings.getPersistence();
+        int chunkSize = config.getRetentionChunkSize();
+        long pauseNanos = config.getRetentionPause().toNanos();
+        String sql = "delete from " + table + " where id in (select id from " + table +
+                " where timestamp < ? limit ?)";
+
+        Timestamp before = Timestamp.from(timestamp);
+        long start = System.nanoTime();
+        long total = 0;
+        int chunks = 0;
+        int deleted;
+        do{
+            deleted = jdbcTemplate.update(sql, before, chunkSize);
+            total += deleted;
+            chunks++;
+            if(deleted == chunkSize && pauseNanos > 0){
+                LockSupport.parkNanos(pauseNanos);
+            }
+        }while(deleted == chunkSize && !stopped && !Thread.currentThread().isInterrupted());
+
+        long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        if(total > 0){
+            log.info("Deleted {} expired rows from {} in {} chunks, {} ms ({} rows/s)",
+                    total, table, chunks, millis, millis == 0 ? total : total * 1000 / millis);
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void stop(){
+        stopped = true;
+    }
+}
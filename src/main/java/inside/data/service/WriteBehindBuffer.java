@@ -0,0 +1,160 @@
+package inside.data.service;
+
+import reactor.util.*;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+
+// pending values are written in batches, the writer is called under the flush lock
+public class WriteBehindBuffer<K, V>{
+    private static final Logger log = Loggers.getLogger(WriteBehindBuffer.class);
+
+    private final ConcurrentMap<K, Pending<V>> pending = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final long retryDelayNanos;
+
+    private final Consumer<? super List<V>> writer;
+
+    // called for each value of a failed batch, the write was rolled back
+    private final Consumer<? super V> onFailure;
+
+    // called for values given up after the last failed attempt
+    private final Consumer<? super V> onDrop;
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public WriteBehindBuffer(int batchSize, int maxAttempts, Duration retryDelay,
+                             Consumer<? super List<V>> writer, Consumer<? super V> onFailure,
+                             Consumer<? super V> onDrop){
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayNanos = retryDelay.toNanos();
+        this.writer = writer;
+        this.onFailure = onFailure;
+        this.onDrop = onDrop;
+    }
+
+    // returns true if the batch is full and should be flushed
+    public boolean offer(K key, V value){
+        pending.put(key, new Pending<>(value));
+        return pending.size() >= batchSize;
+    }
+
+    @Nullable
+    public V get(K key){
+        Pending<V> value = pending.get(key);
+        return value != null ? value.value : null;
+    }
+
+    public boolean replaceIfPending(K key, V value){
+        synchronized(flushLock){
+            return pending.replace(key, new Pending<>(value)) != null;
+        }
+    }
+
+    public boolean removeIfPending(K key){
+        synchronized(flushLock){
+            return pending.remove(key) != null;
+        }
+    }
+
+    public void removeIf(Predicate<? super V> predicate){
+        synchronized(flushLock){
+            pending.values().removeIf(value -> predicate.test(value.value));
+        }
+    }
+
+    public int size(){
+        return pending.size();
+    }
+
+    public long getFailures(){
+        return failures.sum();
+    }
+
+    public long getDropped(){
+        return dropped.sum();
+    }
+
+    // a failed batch stays pending and is retried with an exponential delay
+    public void flush(){
+        synchronized(flushLock){
+            while(true){
+                long now = System.nanoTime();
+                List<Map.Entry<K, Pending<V>>> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+                for(Map.Entry<K, Pending<V>> entry : pending.entrySet()){
+                    if(batch.size() >= batchSize){
+                        break;
+                    }
+                    if(entry.getValue().retryAt - now <= 0){
+                        batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                    }
+                }
+
+                if(batch.isEmpty()){
+                    return;
+                }
+
+                List<V> values = new ArrayList<>(batch.size());
+                for(Map.Entry<K, Pending<V>> entry : batch){
+                    values.add(entry.getValue().value);
+                }
+
+                try{
+                    writer.accept(values);
+                }catch(Throwable t){
+                    failures.increment();
+                    log.error("Failed to write batch of " + values.size() + " values, retrying later", t);
+                    int given = 0;
+                    for(Map.Entry<K, Pending<V>> entry : batch){
+                        Pending<V> value = entry.getValue();
+                        onFailure.accept(value.value);
+                        if(++value.attempts >= maxAttempts){
+                            if(pending.remove(entry.getKey(), value)){
+                                dropped.increment();
+                                given++;
+                                onDrop.accept(value.value);
+                            }
+                        }else{
+                            value.retryAt = now + (retryDelayNanos << Math.min(value.attempts - 1, 16));
+                        }
+                    }
+                    if(given > 0){
+                        log.error("Dropped {} values after {} failed attempts", given, maxAttempts);
+                    }
+                    return;
+                }
+
+                // values offered again during the write stay pending
+                for(Map.Entry<K, Pending<V>> entry : batch){
+                    pending.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    // identity matters, a value offered again must not be removed after a write
+    private static final class Pending<V>{
+        private final V value;
+
+        // guarded by the flush lock
+        private int attempts;
+        private long retryAt = System.nanoTime();
+
+        private Pending(V value){
+            this.value = value;
+        }
+    }
+}
@@ -11,7 +11,7 @@ import reactor.util.annotation.Nullable;
 public class ActivityConfigService extends BaseLongObjEntityService<ActivityConfig, ActivityConfigRepository>{
 
     protected ActivityConfigService(ActivityConfigRepository repository, Settings settings){
-        super(repository, settings);
+        super(repository, settings, "activity-config");
     }
 
     @Nullable
@@ -19,4 +19,9 @@ public class ActivityConfigService extends BaseLongObjEntityService<ActivityConf
     protected ActivityConfig find0(long id){
         return repository.findByGuildId(id);
     }
+
+    @Override
+    protected Long cacheKey(ActivityConfig entity){
+        return entity.guildId().asLong();
+    }
 }
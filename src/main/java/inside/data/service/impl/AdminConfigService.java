@@ -11,7 +11,7 @@ import reactor.util.annotation.Nullable;
 public class AdminConfigService extends BaseLongObjEntityService<AdminConfig, AdminConfigRepository>{
 
     protected AdminConfigService(AdminConfigRepository repository, Settings settings){
-        super(repository, settings);
+        super(repository, settings, "admin-config");
     }
 
     @Nullable
@@ -19,4 +19,9 @@ public class AdminConfigService extends BaseLongObjEntityService<AdminConfig, Ad
     protected AdminConfig find0(long id){
         return repository.findByGuildId(id);
     }
+
+    @Override
+    protected Long cacheKey(AdminConfig entity){
+        return entity.guildId().asLong();
+    }
 }
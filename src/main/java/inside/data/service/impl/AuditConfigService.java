@@ -11,7 +11,7 @@ import reactor.util.annotation.Nullable;
 public class AuditConfigService extends BaseLongObjEntityService<AuditConfig, AuditConfigRepository>{
 
     protected AuditConfigService(AuditConfigRepository repository, Settings settings){
-        super(repository, settings);
+        super(repository, settings, "audit-config");
     }
 
     @Nullable
@@ -19,4 +19,9 @@ public class AuditConfigService extends BaseLongObjEntityService<AuditConfig, Au
     protected AuditConfig find0(long id){
         return repository.findByGuildId(id);
     }
+
+    @Override
+    protected Long cacheKey(AuditConfig entity){
+        return entity.guildId().asLong();
+    }
 }
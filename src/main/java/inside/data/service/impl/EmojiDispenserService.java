@@ -1,19 +1,46 @@
 package inside.data.service.impl;
 
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.reaction.ReactionEmoji;
 import discord4j.store.api.util.LongLongTuple2;
 import inside.Settings;
 import inside.data.entity.EmojiDispenser;
 import inside.data.repository.EmojiDispenserRepository;
-import inside.data.service.BaseEntityService;
+import inside.data.service.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.*;
 import reactor.util.annotation.Nullable;
 
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.function.Consumer;
+
 @Service
 public class EmojiDispenserService extends BaseEntityService<LongLongTuple2, EmojiDispenser, EmojiDispenserRepository>{
 
+    // entity id -> dispenser, the index is rebuilt from it on every write
+    private final Map<Long, EmojiDispenser> dispensers = new HashMap<>();
+
+    private volatile DispenserIndex index = DispenserIndex.empty;
+
     protected EmojiDispenserService(EmojiDispenserRepository repository, Settings settings){
-        super(repository, settings);
+        super(repository, settings, "emoji-dispenser");
+    }
+
+    @PostConstruct
+    public void preload(){
+        List<EmojiDispenser> all = repository.findAll();
+        updateIndex(map -> all.forEach(dispenser -> map.put(dispenser.id(), dispenser)));
+    }
+
+    private synchronized void updateIndex(Consumer<Map<Long, EmojiDispenser>> action){
+        action.accept(dispensers);
+        index = new DispenserIndex(dispensers.values());
+    }
+
+    public List<Snowflake> getRoleIds(long messageId, ReactionEmoji emoji){
+        return index.getRoleIds(messageId, emoji);
     }
 
     @Nullable
@@ -24,19 +51,51 @@ public class EmojiDispenserService extends BaseEntityService<LongLongTuple2, Emo
         return repository.findByMessageIdAndRoleId(messageId, roleId);
     }
 
+    @Override
+    protected LongLongTuple2 cacheKey(EmojiDispenser entity){
+        return LongLongTuple2.of(entity.messageId().asLong(), entity.roleId().asLong());
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> save(EmojiDispenser entity){
+        return super.save(entity).then(Mono.fromRunnable(() ->
+                updateIndex(map -> map.put(entity.id(), entity))));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> delete(EmojiDispenser entity){
+        return super.delete(entity).then(Mono.fromRunnable(() ->
+                updateIndex(map -> map.remove(entity.id()))));
+    }
+
     public Mono<Long> countAllByGuildId(long guildId){
-        return Mono.fromSupplier(() -> repository.countAllByGuildId(guildId));
+        return Mono.fromSupplier(() -> repository.countAllByGuildId(guildId))
+                .subscribeOn(persistenceScheduler.get());
     }
 
     public Flux<EmojiDispenser> getAllByMessageId(long messageId){
-        return Flux.defer(() -> Flux.fromIterable(repository.findAllByMessageId(messageId)));
+        return Flux.defer(() -> Flux.fromIterable(repository.findAllByMessageId(messageId)))
+                .subscribeOn(persistenceScheduler.get());
     }
 
     public Flux<EmojiDispenser> getAllByGuildId(long guildId){
-        return Flux.defer(() -> Flux.fromIterable(repository.getAllByGuildId(guildId)));
+        return Flux.defer(() -> Flux.fromIterable(repository.getAllByGuildId(guildId)))
+                .subscribeOn(persistenceScheduler.get());
+    }
+
+    @Override
+    public void invalidateGuild(long guildId){
+        super.invalidateGuild(guildId);
+        updateIndex(map -> map.values().removeIf(emojiDispenser -> emojiDispenser.guildId().asLong() == guildId));
     }
 
     public Mono<Void> deleteAllByGuildId(long guildId){
-        return Mono.fromRunnable(() -> repository.deleteAllByGuildId(guildId));
+        return Mono.fromRunnable(() -> {
+            repository.deleteAllByGuildId(guildId);
+            invalidateAll(emojiDispenser -> emojiDispenser.guildId().asLong() == guildId);
+            updateIndex(map -> map.values().removeIf(emojiDispenser -> emojiDispenser.guildId().asLong() == guildId));
+        }).subscribeOn(persistenceScheduler.get()).then();
     }
 }
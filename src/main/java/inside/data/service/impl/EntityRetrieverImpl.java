@@ -2,6 +2,7 @@ package inside.data.service.impl;
 
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.entity.*;
+import discord4j.core.object.reaction.ReactionEmoji;
 import discord4j.discordjson.json.EmojiData;
 import discord4j.store.api.util.LongLongTuple2;
 import inside.Settings;
@@ -13,7 +14,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.*;
 
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class EntityRetrieverImpl implements EntityRetriever{
@@ -31,12 +34,16 @@ public class EntityRetrieverImpl implements EntityRetriever{
 
     private final MessageService messageService;
 
+    private final GuildPurger guildPurger;
+
     public EntityRetrieverImpl(@Autowired StoreHolder storeHolder,
                                @Autowired Settings settings,
-                               @Autowired MessageService messageService){
+                               @Autowired MessageService messageService,
+                               @Autowired GuildPurger guildPurger){
         this.storeHolder = storeHolder;
         this.settings = settings;
         this.messageService = messageService;
+        this.guildPurger = guildPurger;
     }
 
     @Override
@@ -51,6 +58,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getGuildConfigService().save(guildConfig);
     }
 
+    @Override
+    public Mono<Void> update(GuildConfig guildConfig, Consumer<? super GuildConfig> updater){
+        Objects.requireNonNull(guildConfig, "guildConfig");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getGuildConfigService().update(guildConfig, updater);
+    }
+
     @Override
     public Mono<Void> deleteGuildConfigById(Snowflake guildId){
         Objects.requireNonNull(guildId, "guildId");
@@ -69,6 +83,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getAdminConfigService().save(adminConfig);
     }
 
+    @Override
+    public Mono<Void> update(AdminConfig adminConfig, Consumer<? super AdminConfig> updater){
+        Objects.requireNonNull(adminConfig, "adminConfig");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getAdminConfigService().update(adminConfig, updater);
+    }
+
     @Override
     public Mono<Void> deleteAdminConfigById(Snowflake guildId){
         Objects.requireNonNull(guildId, "guildId");
@@ -87,6 +108,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getAuditConfigService().save(auditConfig);
     }
 
+    @Override
+    public Mono<Void> update(AuditConfig auditConfig, Consumer<? super AuditConfig> updater){
+        Objects.requireNonNull(auditConfig, "auditConfig");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getAuditConfigService().update(auditConfig, updater);
+    }
+
     @Override
     public Mono<Void> deleteAuditConfigById(Snowflake guildId){
         Objects.requireNonNull(guildId, "guildId");
@@ -111,8 +139,7 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return getLocalMemberById(member.getId(), member.getGuildId())
                 .flatMap(localMember -> Mono.defer(() -> {
                     if(!localMember.effectiveName().equals(member.getDisplayName())){
-                        localMember.effectiveName(member.getDisplayName());
-                        return save(localMember);
+                        return update(localMember, l -> l.effectiveName(member.getDisplayName()));
                     }
                     return Mono.empty();
                 }).thenReturn(localMember));
@@ -124,6 +151,28 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getLocalMemberService().save(localMember);
     }
 
+    @Override
+    public Mono<Void> update(LocalMember localMember, Consumer<? super LocalMember> updater){
+        Objects.requireNonNull(localMember, "localMember");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getLocalMemberService().update(localMember, updater);
+    }
+
+    @Override
+    public Flux<LocalMember> getAllActiveLocalMembers(Snowflake guildId, int messageBarrier, Instant after){
+        Objects.requireNonNull(guildId, "guildId");
+        Objects.requireNonNull(after, "after");
+        return storeHolder.getLocalMemberService().getAllActive(guildId.asLong(), messageBarrier, after);
+    }
+
+    @Override
+    public Mono<Void> incrementActivity(Member member, Instant timestamp, boolean reset){
+        Objects.requireNonNull(member, "member");
+        Objects.requireNonNull(timestamp, "timestamp");
+        return Mono.fromRunnable(() -> storeHolder.getLocalMemberService().incrementActivity(
+                member.getGuildId().asLong(), member.getId().asLong(), timestamp, reset));
+    }
+
     @Override
     public Mono<Void> deleteAllLocalMembersInGuild(Snowflake guildId){
         Objects.requireNonNull(guildId, "guildId");
@@ -142,6 +191,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getMessageInfoService().save(messageInfo);
     }
 
+    @Override
+    public Mono<Void> update(MessageInfo messageInfo, Consumer<? super MessageInfo> updater){
+        Objects.requireNonNull(messageInfo, "messageInfo");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getMessageInfoService().update(messageInfo, updater);
+    }
+
     @Override
     public Mono<Void> deleteMessageInfoById(Snowflake messageId){
         return getMessageInfoById(messageId).flatMap(this::delete);
@@ -171,6 +227,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getStarboardConfigService().save(starboardConfig);
     }
 
+    @Override
+    public Mono<Void> update(StarboardConfig starboardConfig, Consumer<? super StarboardConfig> updater){
+        Objects.requireNonNull(starboardConfig, "starboardConfig");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getStarboardConfigService().update(starboardConfig, updater);
+    }
+
     @Override
     public Mono<Void> deleteStarboardConfigById(Snowflake guildId){
         Objects.requireNonNull(guildId, "guildId");
@@ -190,6 +253,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getStarboardService().save(starboard);
     }
 
+    @Override
+    public Mono<Void> update(Starboard starboard, Consumer<? super Starboard> updater){
+        Objects.requireNonNull(starboard, "starboard");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getStarboardService().update(starboard, updater);
+    }
+
     @Override
     public Mono<Void> deleteStarboardById(Snowflake guildId, Snowflake sourceMessageId){
         return getStarboardById(guildId, sourceMessageId).flatMap(this::delete);
@@ -219,6 +289,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getActivityConfigService().save(activityConfig);
     }
 
+    @Override
+    public Mono<Void> update(ActivityConfig activityConfig, Consumer<? super ActivityConfig> updater){
+        Objects.requireNonNull(activityConfig, "activityConfig");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getActivityConfigService().update(activityConfig, updater);
+    }
+
     @Override
     public Mono<Void> deleteActivityConfigById(Snowflake guildId){
         Objects.requireNonNull(guildId, "guildId");
@@ -231,6 +308,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getEmojiDispenserService().getAllByMessageId(messageId.asLong());
     }
 
+    @Override
+    public List<Snowflake> getDispensedRoleIds(Snowflake messageId, ReactionEmoji emoji){
+        Objects.requireNonNull(messageId, "messageId");
+        Objects.requireNonNull(emoji, "emoji");
+        return storeHolder.getEmojiDispenserService().getRoleIds(messageId.asLong(), emoji);
+    }
+
     @Override
     public Mono<EmojiDispenser> getEmojiDispenserById(Snowflake messageId, Snowflake roleId){
         Objects.requireNonNull(messageId, "messageId");
@@ -256,6 +340,13 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getEmojiDispenserService().save(emojiDispenser);
     }
 
+    @Override
+    public Mono<Void> update(EmojiDispenser emojiDispenser, Consumer<? super EmojiDispenser> updater){
+        Objects.requireNonNull(emojiDispenser, "emojiDispenser");
+        Objects.requireNonNull(updater, "updater");
+        return storeHolder.getEmojiDispenserService().update(emojiDispenser, updater);
+    }
+
     @Override
     public Mono<Void> deleteEmojiDispenserById(Snowflake messageId, Snowflake roleId){
         Objects.requireNonNull(messageId, "messageId");
@@ -275,6 +366,12 @@ public class EntityRetrieverImpl implements EntityRetriever{
         return storeHolder.getEmojiDispenserService().deleteAllByGuildId(guildId.asLong());
     }
 
+    @Override
+    public Mono<Void> purgeGuild(Snowflake guildId){
+        Objects.requireNonNull(guildId, "guildId");
+        return guildPurger.purge(guildId.asLong());
+    }
+
     @Override
     public Mono<GuildConfig> createGuildConfig(Snowflake guildId){
         Objects.requireNonNull(guildId, "guildId");
@@ -337,7 +434,7 @@ public class EntityRetrieverImpl implements EntityRetriever{
             messageInfo.guildId(message.getGuildId().orElseThrow(IllegalStateException::new)); // only guilds
             messageInfo.timestamp(message.getTimestamp());
             messageInfo.content(messageService.encrypt(MessageUtil.effectiveContent(message), message.getId(), message.getChannelId()));
-            return save(messageInfo).thenReturn(messageInfo);
+            return storeHolder.getMessageInfoService().insertLater(messageInfo).thenReturn(messageInfo);
         });
     }
 
@@ -11,7 +11,7 @@ import reactor.util.annotation.Nullable;
 public class GuildConfigService extends BaseLongObjEntityService<GuildConfig, GuildConfigRepository>{
 
     protected GuildConfigService(GuildConfigRepository repository, Settings settings){
-        super(repository, settings);
+        super(repository, settings, "guild-config");
     }
 
     @Nullable
@@ -19,4 +19,9 @@ public class GuildConfigService extends BaseLongObjEntityService<GuildConfig, Gu
     protected GuildConfig find0(long id){
         return repository.findByGuildId(id);
     }
+
+    @Override
+    protected Long cacheKey(GuildConfig entity){
+        return entity.guildId().asLong();
+    }
 }
@@ -4,20 +4,42 @@ import discord4j.store.api.util.LongLongTuple2;
 import inside.Settings;
 import inside.data.entity.LocalMember;
 import inside.data.repository.LocalMemberRepository;
-import inside.data.service.BaseEntityService;
+import inside.data.service.*;
+import org.springframework.jdbc.core.*;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import reactor.core.publisher.Mono;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.*;
+import reactor.util.*;
 import reactor.util.annotation.Nullable;
 
+import javax.annotation.PreDestroy;
+import java.sql.*;
 import java.time.Instant;
 
 @Service
 public class LocalMemberService extends BaseEntityService<LongLongTuple2, LocalMember, LocalMemberRepository>{
+    private static final Logger log = Loggers.getLogger(LocalMemberService.class);
 
-    protected LocalMemberService(LocalMemberRepository repository, Settings settings){
-        super(repository, settings);
+    private static final String incrementActivitySql = """
+            update activity set message_count = (case when ? then 0 else message_count end) + ?,
+            last_sent_message = greatest(last_sent_message, ?)
+            where id = (select activity_id from local_member where user_id = ? and guild_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ActivityAccumulator activityAccumulator = new ActivityAccumulator();
+
+    protected LocalMemberService(LocalMemberRepository repository, Settings settings, JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager){
+        super(repository, settings, "local-member");
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Nullable
@@ -28,14 +50,86 @@ public class LocalMemberService extends BaseEntityService<LongLongTuple2, LocalM
         return repository.findByUserIdAndGuildId(userId, guildId);
     }
 
+    @Override
+    protected LongLongTuple2 cacheKey(LocalMember entity){
+        return LongLongTuple2.of(entity.userId().asLong(), entity.guildId().asLong());
+    }
+
+    public Flux<LocalMember> getAllActive(long guildId, int messageBarrier, Instant after){
+        return Flux.defer(() -> Flux.fromIterable(repository.findAllByGuildIdAndActivityMessageCountGreaterThanEqualAndActivityLastSentMessageAfter(
+                        guildId, messageBarrier, after)))
+                .subscribeOn(persistenceScheduler.get());
+    }
+
+    // counted in memory and added to the stored values by flushActivity()
+    public void incrementActivity(long guildId, long userId, Instant timestamp, boolean reset){
+        activityAccumulator.increment(guildId, userId, timestamp.toEpochMilli(), reset);
+    }
+
+    @Scheduled(fixedDelay = 5000)
+    @PreDestroy
+    public void flushActivity(){
+        ActivityAccumulator.Snapshot snapshot = activityAccumulator.drain();
+        if(snapshot.size() == 0){
+            return;
+        }
+
+        try{
+            transactionTemplate.executeWithoutResult(status -> writeActivity(snapshot));
+        }catch(Throwable t){
+            // nothing was committed, the counts are written with the next flush
+            activityAccumulator.restore(snapshot);
+            log.error("Failed to write activity of {} members, retrying with the next flush", snapshot.size());
+            throw t;
+        }
+
+        // cached members hold the counts from before the update
+        for(int i = 0; i < snapshot.size(); i++){
+            cache.invalidate(LongLongTuple2.of(snapshot.userId(i), snapshot.guildId(i)));
+        }
+    }
+
+    private void writeActivity(ActivityAccumulator.Snapshot snapshot){
+        jdbcTemplate.batchUpdate(incrementActivitySql, new BatchPreparedStatementSetter(){
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException{
+                ps.setBoolean(1, snapshot.reset(i));
+                ps.setInt(2, snapshot.count(i));
+                ps.setTimestamp(3, new Timestamp(snapshot.lastSent(i)));
+                ps.setLong(4, snapshot.userId(i));
+                ps.setLong(5, snapshot.guildId(i));
+            }
+
+            @Override
+            public int getBatchSize(){
+                return snapshot.size();
+            }
+        });
+    }
+
     public Mono<Void> deleteAllByGuildId(long guildId){
-        return Mono.fromRunnable(() -> repository.deleteAllByGuildId(guildId));
+        return Mono.fromRunnable(() -> {
+            activityAccumulator.remove(guildId);
+            repository.deleteAllByGuildId(guildId);
+            invalidateAll(localMember -> localMember.guildId().asLong() == guildId);
+        }).subscribeOn(persistenceScheduler.get()).then();
+    }
+
+    @Override
+    public void invalidateGuild(long guildId){
+        activityAccumulator.remove(guildId);
+        super.invalidateGuild(guildId);
     }
 
     @Override
     @Transactional
     @Scheduled(cron = "0 0 0 * * *")
     protected void cleanUp(){
-        repository.deleteAllByActivityLastSentMessageBefore(Instant.now().minus(settings.getAudit().getMemberKeep()));
+        Instant timestamp = Instant.now().minus(settings.getAudit().getMemberKeep());
+        repository.deleteAllByActivityLastSentMessageBefore(timestamp);
+        invalidateAll(localMember -> {
+            Instant last = localMember.activity().lastSentMessage();
+            return last != null && last.isBefore(timestamp);
+        });
     }
 }
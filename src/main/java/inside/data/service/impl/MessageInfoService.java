@@ -3,37 +3,167 @@ package inside.data.service.impl;
 import inside.Settings;
 import inside.data.entity.MessageInfo;
 import inside.data.repository.MessageInfoRepository;
-import inside.data.service.BaseLongObjEntityService;
+import inside.data.service.*;
+import inside.service.MessageService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
+import reactor.util.*;
 import reactor.util.annotation.Nullable;
 
+import javax.annotation.PreDestroy;
 import java.time.Instant;
+import java.util.*;
 
 // or LongLongTuple2?
 @Service
 public class MessageInfoService extends BaseLongObjEntityService<MessageInfo, MessageInfoRepository>{
+    private static final Logger log = Loggers.getLogger(MessageInfoService.class);
 
-    protected MessageInfoService(MessageInfoRepository repository, Settings settings){
-        super(repository, settings);
+    private static final int migrationBatchSize = 500;
+
+    private final MessageService messageService;
+
+    private final WriteBehindBuffer<Long, MessageInfo> pendingInserts;
+
+    private final RetentionCleaner retentionCleaner;
+
+    private volatile boolean migrated;
+
+    // rows that failed to convert stay behind the cursor and are converted on access
+    private volatile long migrationCursor;
+
+    protected MessageInfoService(MessageInfoRepository repository, Settings settings, MessageService messageService,
+                                 RetentionCleaner retentionCleaner){
+        super(repository, settings, "message-info");
+        this.messageService = messageService;
+        this.retentionCleaner = retentionCleaner;
+        Settings.Persistence persistence = settings.getPersistence();
+        // a dropped value is not stored, the cache must not claim otherwise
+        this.pendingInserts = new WriteBehindBuffer<>(persistence.getWriteBatchSize(), persistence.getWriteAttempts(),
+                persistence.getWriteRetryDelay(), repository::saveAll, MessageInfo::resetId,
+                messageInfo -> cache.invalidate(cacheKey(messageInfo)));
     }
 
     @Nullable
     @Override
     protected MessageInfo find0(long id){
-        return repository.findByMessageId(id);
+        MessageInfo messageInfo = pendingInserts.get(id);
+        if(messageInfo != null){
+            return messageInfo;
+        }
+
+        messageInfo = repository.findByMessageId(id);
+        // not migrated yet, persisted on next save. converted before the entity is cached, nothing shares it yet
+        if(messageInfo != null && messageInfo.content() == null){
+            convertTextContent(messageInfo);
+        }
+        return messageInfo;
+    }
+
+    private boolean convertTextContent(MessageInfo messageInfo){
+        try{
+            String textContent = messageInfo.textContent();
+            messageInfo.content(messageService.convertTextContent(textContent != null ? textContent : ""));
+            return true;
+        }catch(Throwable t){
+            log.warn("Failed to convert content of message {} (id {})", messageInfo.messageId().asString(), messageInfo.id(), t);
+            return false;
+        }
+    }
+
+    @Override
+    protected Long cacheKey(MessageInfo entity){
+        return entity.messageId().asLong();
+    }
+
+    // inserted in a batch, edits and deletes before the flush are applied to the pending entity
+    public Mono<Void> insertLater(MessageInfo messageInfo){
+        return Mono.fromRunnable(() -> {
+            cache.put(cacheKey(messageInfo), Optional.of(messageInfo));
+            if(pendingInserts.offer(cacheKey(messageInfo), messageInfo)){
+                // a rejected early flush leaves the batch to the scheduled one
+                Mono.fromRunnable(pendingInserts::flush)
+                        .subscribeOn(persistenceScheduler.get())
+                        .subscribe(null, t -> log.debug("Early flush of pending messages skipped: {}", t.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> save(MessageInfo entity){
+        return Mono.fromCallable(() -> pendingInserts.replaceIfPending(cacheKey(entity), entity))
+                .subscribeOn(persistenceScheduler.get())
+                .flatMap(pending -> pending
+                        ? Mono.fromRunnable(() -> cache.put(cacheKey(entity), Optional.of(entity)))
+                        : super.save(entity))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> delete(MessageInfo entity){
+        return Mono.fromCallable(() -> pendingInserts.removeIfPending(cacheKey(entity)))
+                .subscribeOn(persistenceScheduler.get())
+                .flatMap(pending -> pending
+                        ? Mono.fromRunnable(() -> cache.invalidate(cacheKey(entity)))
+                        : super.delete(entity))
+                .then();
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    @PreDestroy
+    public void flush(){
+        pendingInserts.flush();
     }
 
     public Mono<Void> deleteAllByGuildId(long guildId){
-        return Mono.fromRunnable(() -> repository.deleteAllByGuildId(guildId));
+        return Mono.fromRunnable(() -> {
+            pendingInserts.removeIf(messageInfo -> messageInfo.guildId().asLong() == guildId);
+            repository.deleteAllByGuildId(guildId);
+            invalidateAll(messageInfo -> messageInfo.guildId().asLong() == guildId);
+        }).subscribeOn(persistenceScheduler.get()).then();
+    }
+
+    @Override
+    public void invalidateGuild(long guildId){
+        pendingInserts.removeIf(messageInfo -> messageInfo.guildId().asLong() == guildId);
+        super.invalidateGuild(guildId);
     }
 
     @Override
-    @Transactional
     @Scheduled(cron = "0 0 */4 * * *")
     public void cleanUp(){
-        repository.deleteAllByTimestampBefore(Instant.now().minus(settings.getAudit().getHistoryKeep()));
+        Instant timestamp = Instant.now().minus(settings.getAudit().getHistoryKeep());
+        retentionCleaner.deleteBefore("message_info", timestamp);
+        invalidateAll(messageInfo -> messageInfo.timestamp().isBefore(timestamp));
+    }
+
+    @Transactional
+    @Scheduled(fixedDelay = 10000, initialDelay = 60000)
+    public void migrateTextContent(){
+        if(migrated){
+            return;
+        }
+
+        List<MessageInfo> batch = repository.findAllByContentIsNullAndIdGreaterThanOrderByIdAsc(migrationCursor,
+                PageRequest.of(0, migrationBatchSize));
+        if(batch.isEmpty()){
+            migrated = true;
+            log.info("Message content migration is complete");
+            return;
+        }
+
+        List<MessageInfo> converted = new ArrayList<>(batch.size());
+        for(MessageInfo messageInfo : batch){
+            if(convertTextContent(messageInfo)){
+                converted.add(messageInfo);
+            }
+            cache.invalidate(cacheKey(messageInfo));
+        }
+        repository.saveAll(converted);
+        migrationCursor = batch.get(batch.size() - 1).id();
+        log.debug("Migrated {} message contents to binary format, {} skipped", converted.size(), batch.size() - converted.size());
     }
 }
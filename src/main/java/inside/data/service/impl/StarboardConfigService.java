@@ -11,7 +11,7 @@ import reactor.util.annotation.Nullable;
 public class StarboardConfigService extends BaseLongObjEntityService<StarboardConfig, StarboardConfigRepository>{
 
     protected StarboardConfigService(StarboardConfigRepository repository, Settings settings){
-        super(repository, settings);
+        super(repository, settings, "starboard-config");
     }
 
     @Nullable
@@ -19,4 +19,9 @@ public class StarboardConfigService extends BaseLongObjEntityService<StarboardCo
     protected StarboardConfig find0(long id){
         return repository.findByGuildId(id);
     }
+
+    @Override
+    protected Long cacheKey(StarboardConfig entity){
+        return entity.guildId().asLong();
+    }
 }
@@ -13,7 +13,7 @@ import reactor.util.annotation.Nullable;
 public class StarboardService extends BaseEntityService<LongLongTuple2, Starboard, StarboardRepository>{
 
     protected StarboardService(StarboardRepository repository, Settings settings){
-        super(repository, settings);
+        super(repository, settings, "starboard");
     }
 
     @Nullable
@@ -24,7 +24,15 @@ public class StarboardService extends BaseEntityService<LongLongTuple2, Starboar
         return repository.findByGuildIdAndSourceMessageId(guildId, sourceMessageId);
     }
 
+    @Override
+    protected LongLongTuple2 cacheKey(Starboard entity){
+        return LongLongTuple2.of(entity.guildId().asLong(), entity.sourceMessageId().asLong());
+    }
+
     public Mono<Void> deleteAllByGuildId(long guildId){
-        return Mono.fromRunnable(() -> repository.deleteAllByGuildId(guildId));
+        return Mono.fromRunnable(() -> {
+            repository.deleteAllByGuildId(guildId);
+            invalidateAll(starboard -> starboard.guildId().asLong() == guildId);
+        }).subscribeOn(persistenceScheduler.get()).then();
     }
 }
@@ -0,0 +1,26 @@
+package inside.data.type;
+
+import inside.audit.AttributeMap;
+import inside.data.type.descriptor.AttributeMapDescriptor;
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.sql.VarbinaryTypeDescriptor;
+
+// audit attributes in their binary form
+public class AttributeMapType extends AbstractSingleColumnStandardBasicType<AttributeMap>{
+
+    public static final AttributeMapType instance = new AttributeMapType();
+
+    public AttributeMapType(){
+        super(VarbinaryTypeDescriptor.INSTANCE, AttributeMapDescriptor.instance);
+    }
+
+    @Override
+    public String getName(){
+        return "attribute_map";
+    }
+
+    @Override
+    protected boolean registerUnderJavaType(){
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package inside.data.type.descriptor;
+
+import inside.audit.AttributeMap;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.*;
+
+import java.io.Serial;
+import java.util.Base64;
+
+public class AttributeMapDescriptor extends AbstractTypeDescriptor<AttributeMap>{
+
+    public static final AttributeMapDescriptor instance = new AttributeMapDescriptor();
+
+    public AttributeMapDescriptor(){
+        super(AttributeMap.class, new MutableMutabilityPlan<>(){
+            @Serial
+            private static final long serialVersionUID = -3163707328216420548L;
+
+            @Override
+            protected AttributeMap deepCopyNotNull(AttributeMap value){
+                return value.copy();
+            }
+        });
+    }
+
+    @Override
+    public String toString(AttributeMap value){
+        return Base64.getEncoder().encodeToString(value.toBytes());
+    }
+
+    @Override
+    public AttributeMap fromString(String string){
+        return AttributeMap.fromBytes(Base64.getDecoder().decode(string));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <X> X unwrap(AttributeMap value, Class<X> type, WrapperOptions options){
+        if(value == null){
+            return null;
+        }
+
+        if(AttributeMap.class.isAssignableFrom(type)){
+            return (X)value;
+        }
+
+        if(byte[].class.isAssignableFrom(type)){
+            return (X)value.toBytes();
+        }
+
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> AttributeMap wrap(X value, WrapperOptions options){
+        if(value == null){
+            return null;
+        }
+
+        if(value instanceof AttributeMap a){
+            return a;
+        }
+
+        if(value instanceof byte[] b){
+            return AttributeMap.fromBytes(b);
+        }
+
+        throw unknownWrap(value.getClass());
+    }
+}
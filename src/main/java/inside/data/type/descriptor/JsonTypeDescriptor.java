@@ -1,5 +1,8 @@
 package inside.data.type.descriptor;
 
+import discord4j.common.util.Snowflake;
+import discord4j.discordjson.Id;
+import discord4j.discordjson.json.EmojiData;
 import inside.util.*;
 import org.hibernate.annotations.common.reflection.java.JavaXMember;
 import org.hibernate.type.descriptor.WrapperOptions;
@@ -9,39 +12,65 @@ import reactor.util.*;
 import reactor.util.annotation.Nullable;
 
 import java.io.Serial;
-import java.lang.reflect.Type;
-import java.util.Properties;
+import java.lang.reflect.*;
+import java.util.*;
 
 public class JsonTypeDescriptor extends AbstractTypeDescriptor<Object> implements DynamicParameterizedType{
     private static final Logger log = Loggers.getLogger(JsonTypeDescriptor.class);
 
+    private static final MutabilityPlan<Object> jsonCopy = new JsonCopyPlan();
+
     private Type type;
 
-    public JsonTypeDescriptor(){
-        super(Object.class, new MutableMutabilityPlan<>(){
-            @Serial
-            private static final long serialVersionUID = 1606718143878984537L;
+    // values of known shapes are copied and compared structurally, without a json round trip
+    private MutabilityPlan<Object> mutabilityPlan = jsonCopy;
 
-            @Override
-            protected Object deepCopyNotNull(Object value){
-                return JacksonUtil.copy(value);
-            }
-        });
+    public JsonTypeDescriptor(){
+        super(Object.class, jsonCopy);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void setParameterValues(Properties parameters){
         JavaXMember xprop = (JavaXMember)parameters.get(XPROPERTY);
         type = xprop.getJavaType();
+
+        if(isImmutable(type)){
+            mutabilityPlan = ImmutableMutabilityPlan.INSTANCE;
+        }else if(type instanceof ParameterizedType p && p.getActualTypeArguments().length == 1 &&
+                isImmutable(p.getActualTypeArguments()[0])){
+            if(p.getRawType() == List.class){
+                mutabilityPlan = ListCopyPlan.instance;
+            }else if(p.getRawType() == Set.class){
+                mutabilityPlan = SetCopyPlan.instance;
+            }
+        }
+    }
+
+    @Override
+    public MutabilityPlan<Object> getMutabilityPlan(){
+        return mutabilityPlan;
     }
 
     @Override
     public boolean areEqual(Object a, Object b){
         if(a == b) return true;
         if(a == null || b == null) return false;
+        if(mutabilityPlan != jsonCopy){
+            return a.equals(b);
+        }
         return JacksonUtil.toJsonNode(a).equals(JacksonUtil.toJsonNode(b));
     }
 
+    // types with value equality whose instances can be shared between copies
+    private static boolean isImmutable(Type type){
+        if(!(type instanceof Class<?> c)){
+            return false;
+        }
+        return c == String.class || c == Long.class || c.isEnum() || c == Snowflake.class ||
+                c == Id.class || EmojiData.class.isAssignableFrom(c);
+    }
+
     @Override
     public String toString(Object value){
         return JacksonUtil.toJson(value);
@@ -70,4 +99,38 @@ public class JsonTypeDescriptor extends AbstractTypeDescriptor<Object> implement
     public <X> Object wrap(@Nullable X value, WrapperOptions options){
         return value == null ? null : fromString(value.toString());
     }
+
+    private static class JsonCopyPlan extends MutableMutabilityPlan<Object>{
+        @Serial
+        private static final long serialVersionUID = 1606718143878984537L;
+
+        @Override
+        protected Object deepCopyNotNull(Object value){
+            return JacksonUtil.copy(value);
+        }
+    }
+
+    private static class ListCopyPlan extends MutableMutabilityPlan<Object>{
+        @Serial
+        private static final long serialVersionUID = -2360917618337870405L;
+
+        private static final ListCopyPlan instance = new ListCopyPlan();
+
+        @Override
+        protected Object deepCopyNotNull(Object value){
+            return new ArrayList<>((Collection<?>)value);
+        }
+    }
+
+    private static class SetCopyPlan extends MutableMutabilityPlan<Object>{
+        @Serial
+        private static final long serialVersionUID = 4810216253018924315L;
+
+        private static final SetCopyPlan instance = new SetCopyPlan();
+
+        @Override
+        protected Object deepCopyNotNull(Object value){
+            return new LinkedHashSet<>((Collection<?>)value);
+        }
+    }
 }
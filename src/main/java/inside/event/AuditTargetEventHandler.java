@@ -0,0 +1,47 @@
+package inside.event;
+
+import discord4j.core.event.ReactiveEventAdapter;
+import discord4j.core.event.domain.channel.*;
+import discord4j.core.event.domain.guild.MemberUpdateEvent;
+import discord4j.core.event.domain.role.*;
+import inside.audit.AuditLogSender;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// keeps the resolved audit log channels and their send permission up to date
+@Component
+public class AuditTargetEventHandler extends ReactiveEventAdapter{
+
+    @Autowired
+    private AuditLogSender auditLogSender;
+
+    @Override
+    public Publisher<?> onTextChannelUpdate(TextChannelUpdateEvent event){
+        return Mono.fromRunnable(() -> auditLogSender.invalidate(event.getCurrent().getGuildId()));
+    }
+
+    @Override
+    public Publisher<?> onTextChannelDelete(TextChannelDeleteEvent event){
+        return Mono.fromRunnable(() -> auditLogSender.invalidate(event.getChannel().getGuildId()));
+    }
+
+    @Override
+    public Publisher<?> onRoleUpdate(RoleUpdateEvent event){
+        return Mono.fromRunnable(() -> auditLogSender.invalidate(event.getCurrent().getGuildId()));
+    }
+
+    @Override
+    public Publisher<?> onRoleDelete(RoleDeleteEvent event){
+        return Mono.fromRunnable(() -> auditLogSender.invalidate(event.getGuildId()));
+    }
+
+    @Override
+    public Publisher<?> onMemberUpdate(MemberUpdateEvent event){
+        if(!event.getMemberId().equals(event.getClient().getSelfId())){
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> auditLogSender.invalidate(event.getGuildId()));
+    }
+}
@@ -41,6 +41,14 @@ public class MemberEventHandler extends ReactiveEventAdapter{
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private ActivityService activityService;
+
+    @Override
+    public Publisher<?> onGuildCreate(GuildCreateEvent event){
+        return activityService.reconcile(event.getGuild());
+    }
+
     @Override
     public Publisher<?> onMemberJoin(MemberJoinEvent event){
         Member member = event.getMember();
@@ -189,22 +197,13 @@ public class MemberEventHandler extends ReactiveEventAdapter{
                                         .save();
                             });
 
-                            localMember.effectiveName(effectiveName);
-                            return Mono.when(entityRetriever.save(localMember), logRoleUpdate, logNicknameUpdate);
+                            return Mono.when(entityRetriever.update(localMember, l -> l.effectiveName(effectiveName)),
+                                    logRoleUpdate, logNicknameUpdate);
                         })).contextWrite(context));
     }
 
     @Override
     public Publisher<?> onGuildDelete(GuildDeleteEvent event){ // remove all content associated with this guild id
-        Snowflake guildId = event.getGuildId();
-        return entityRetriever.deleteAllStarboardsInGuild(guildId)
-                .and(entityRetriever.deleteAllEmojiDispenserInGuild(guildId))
-                .and(entityRetriever.deleteAllLocalMembersInGuild(guildId))
-                .and(entityRetriever.deleteAllMessageInfoInGuild(guildId))
-                .and(entityRetriever.deleteAuditConfigById(guildId))
-                .and(entityRetriever.deleteGuildConfigById(guildId))
-                .and(entityRetriever.deleteAdminConfigById(guildId))
-                .and(entityRetriever.deleteActivityConfigById(guildId))
-                .and(entityRetriever.deleteStarboardConfigById(guildId));
+        return entityRetriever.purgeGuild(event.getGuildId());
     }
 }
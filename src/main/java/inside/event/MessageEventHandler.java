@@ -13,7 +13,7 @@ import inside.command.CommandHandler;
 import inside.command.model.CommandEnvironment;
 import inside.data.entity.*;
 import inside.data.service.EntityRetriever;
-import inside.service.MessageService;
+import inside.service.*;
 import inside.util.*;
 import inside.util.io.ReusableByteInputStream;
 import org.reactivestreams.Publisher;
@@ -48,6 +48,9 @@ public class MessageEventHandler extends ReactiveEventAdapter{
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private ActivityService activityService;
+
     @Override
     public Publisher<?> onMessageCreate(MessageCreateEvent event){
         Message message = event.getMessage();
@@ -65,11 +68,8 @@ public class MessageEventHandler extends ReactiveEventAdapter{
         Mono<LocalMember> localMember = entityRetriever.getAndUpdateLocalMemberById(member)
                 .switchIfEmpty(entityRetriever.createLocalMember(member));
 
-        Mono<Void> updateActivity = localMember.flatMap(localMember0 -> {
-            localMember0.activity().lastSentMessage(message.getTimestamp());
-            localMember0.activity().incrementMessageCount();
-            return entityRetriever.save(localMember0);
-        });
+        Mono<Void> updateActivity = localMember.flatMap(localMember0 ->
+                activityService.onMessage(member, localMember0, message.getTimestamp()));
 
         Mono<Void> safeMessageInfo = entityRetriever.getAuditConfigById(guildId).flatMap(auditConfig -> {
             if(auditConfig.isEnabled(MESSAGE_CREATE)){
@@ -142,9 +142,10 @@ public class MessageEventHandler extends ReactiveEventAdapter{
                     });
 
                     return messageInfo.flatMap(info -> {
-                        String oldContent = messageService.decrypt(info.content(), message.getId(), message.getChannelId());
-                        info.content(messageService.encrypt(newContent, message.getId(), message.getChannelId()));
-
+                        // null if the stored text content could not be converted, the edit is logged without it
+                        String oldContent = info.content() != null
+                                ? messageService.decrypt(info.content(), message.getId(), message.getChannelId())
+                                : null;
                         if(newContent.equals(oldContent)){ // message was pinned
                             return Mono.empty();
                         }
@@ -152,19 +153,28 @@ public class MessageEventHandler extends ReactiveEventAdapter{
                         AuditActionBuilder builder = auditService.newBuilder(guildId, MESSAGE_EDIT)
                                 .withChannel(channel)
                                 .withUser(member)
-                                .withAttribute(OLD_CONTENT, oldContent)
                                 .withAttribute(NEW_CONTENT, newContent)
                                 .withAttribute(AVATAR_URL, member.getAvatarUrl())
                                 .withAttribute(MESSAGE_ID, message.getId());
 
-                        if(newContent.length() >= Field.MAX_VALUE_LENGTH || oldContent.length() >= Field.MAX_VALUE_LENGTH){
+                        if(oldContent != null){
+                            builder.withAttribute(OLD_CONTENT, oldContent);
+                        }
+
+                        if(oldContent == null && newContent.length() >= Field.MAX_VALUE_LENGTH){
+                            builder.withAttachment(MESSAGE_TXT, ReusableByteInputStream.ofString(String.format("%s%n%s",
+                                    messageService.get(context, "audit.message.new-content.title"), newContent
+                            )));
+                        }else if(oldContent != null && (newContent.length() >= Field.MAX_VALUE_LENGTH ||
+                                oldContent.length() >= Field.MAX_VALUE_LENGTH)){
                             builder.withAttachment(MESSAGE_TXT, ReusableByteInputStream.ofString(String.format("%s%n%s%n%n%s%n%s",
                                     messageService.get(context, "audit.message.old-content.title"), oldContent,
                                     messageService.get(context, "audit.message.new-content.title"), newContent
                             )));
                         }
 
-                        return builder.save().and(entityRetriever.save(info));
+                        byte[] content = messageService.encrypt(newContent, message.getId(), message.getChannelId());
+                        return builder.save().and(entityRetriever.update(info, i -> i.content(content)));
                     }).and(command);
                 }))
                 .contextWrite(context));
@@ -192,12 +202,18 @@ public class MessageEventHandler extends ReactiveEventAdapter{
 
         return initContext.flatMap(context -> Mono.zip(event.getChannel().ofType(TextChannel.class), messageInfo)
                 .flatMap(function((channel, info) -> {
-                    String decrypted = messageService.decrypt(info.content(), message.getId(), message.getChannelId());
+                    // null if the stored text content could not be converted, the deletion is logged without it
+                    String decrypted = info.content() != null
+                            ? messageService.decrypt(info.content(), message.getId(), message.getChannelId())
+                            : null;
                     AuditActionBuilder builder = auditService.newBuilder(guildId, MESSAGE_DELETE)
-                            .withChannel(channel)
-                            .withAttribute(OLD_CONTENT, decrypted);
+                            .withChannel(channel);
+
+                    if(decrypted != null){
+                        builder.withAttribute(OLD_CONTENT, decrypted);
+                    }
 
-                    if(decrypted.length() >= Field.MAX_VALUE_LENGTH){
+                    if(decrypted != null && decrypted.length() >= Field.MAX_VALUE_LENGTH){
                         builder.withAttachment(MESSAGE_TXT, ReusableByteInputStream.ofString(String.format("%s%n%s",
                                 messageService.get(context, "audit.message.deleted-content.title"), decrypted
                         )));
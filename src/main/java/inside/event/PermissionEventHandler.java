@@ -0,0 +1,43 @@
+package inside.event;
+
+import discord4j.core.event.ReactiveEventAdapter;
+import discord4j.core.event.domain.guild.*;
+import discord4j.core.event.domain.role.*;
+import inside.service.AdminService;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// drops the cached member permission flags when roles, members or the guild owner change
+@Component
+public class PermissionEventHandler extends ReactiveEventAdapter{
+
+    @Autowired
+    private AdminService adminService;
+
+    @Override
+    public Publisher<?> onRoleUpdate(RoleUpdateEvent event){
+        return Mono.fromRunnable(() -> adminService.invalidatePermissions(event.getCurrent().getGuildId()));
+    }
+
+    @Override
+    public Publisher<?> onRoleDelete(RoleDeleteEvent event){
+        return Mono.fromRunnable(() -> adminService.invalidatePermissions(event.getGuildId()));
+    }
+
+    @Override
+    public Publisher<?> onMemberUpdate(MemberUpdateEvent event){
+        return Mono.fromRunnable(() -> adminService.invalidatePermissions(event.getGuildId(), event.getMemberId()));
+    }
+
+    @Override
+    public Publisher<?> onMemberLeave(MemberLeaveEvent event){
+        return Mono.fromRunnable(() -> adminService.invalidatePermissions(event.getGuildId(), event.getUser().getId()));
+    }
+
+    @Override
+    public Publisher<?> onGuildUpdate(GuildUpdateEvent event){
+        return Mono.fromRunnable(() -> adminService.invalidatePermissions(event.getCurrent().getId()));
+    }
+}
@@ -3,12 +3,14 @@ package inside.event;
 import discord4j.common.util.Snowflake;
 import discord4j.core.event.ReactiveEventAdapter;
 import discord4j.core.event.domain.message.*;
-import discord4j.core.object.reaction.ReactionEmoji;
 import inside.data.service.EntityRetriever;
+import inside.service.RoleMutationService;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.*;
+
+import java.util.List;
 
 @Component
 public class RoleDispenserEventHandler extends ReactiveEventAdapter{
@@ -16,6 +18,9 @@ public class RoleDispenserEventHandler extends ReactiveEventAdapter{
     @Autowired
     private EntityRetriever entityRetriever;
 
+    @Autowired
+    private RoleMutationService roleMutationService;
+
     @Override
     public Publisher<?> onReactionAdd(ReactionAddEvent event){
         Snowflake guildId = event.getGuildId().orElse(null);
@@ -23,10 +28,8 @@ public class RoleDispenserEventHandler extends ReactiveEventAdapter{
             return Mono.empty();
         }
 
-        return entityRetriever.getEmojiDispensersById(event.getMessageId())
-                .filter(emojiDispenser -> event.getEmoji().equals(ReactionEmoji.of(emojiDispenser.emoji())))
-                .flatMap(emojiDispenser -> event.getUser().flatMap(user -> user.asMember(guildId))
-                        .flatMap(member -> member.addRole(emojiDispenser.roleId())));
+        List<Snowflake> roleIds = entityRetriever.getDispensedRoleIds(event.getMessageId(), event.getEmoji());
+        return Flux.fromIterable(roleIds).flatMap(roleId -> roleMutationService.addRole(guildId, event.getUserId(), roleId));
     }
 
     @Override
@@ -36,9 +39,7 @@ public class RoleDispenserEventHandler extends ReactiveEventAdapter{
             return Mono.empty();
         }
 
-        return entityRetriever.getEmojiDispensersById(event.getMessageId())
-                .filter(emojiDispenser -> event.getEmoji().equals(ReactionEmoji.of(emojiDispenser.emoji())))
-                .flatMap(emojiDispenser -> event.getUser().flatMap(user -> user.asMember(guildId))
-                        .flatMap(member -> member.removeRole(emojiDispenser.roleId())));
+        List<Snowflake> roleIds = entityRetriever.getDispensedRoleIds(event.getMessageId(), event.getEmoji());
+        return Flux.fromIterable(roleIds).flatMap(roleId -> roleMutationService.removeRole(guildId, event.getUserId(), roleId));
     }
 }
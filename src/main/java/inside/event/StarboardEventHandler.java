@@ -1,7 +1,10 @@
 package inside.event;
 
+import com.github.benmanes.caffeine.cache.*;
 import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.ReactiveEventAdapter;
+import discord4j.core.event.domain.guild.GuildCreateEvent;
 import discord4j.core.event.domain.message.*;
 import discord4j.core.object.Embed;
 import discord4j.core.object.entity.*;
@@ -9,6 +12,8 @@ import discord4j.core.object.entity.channel.GuildMessageChannel;
 import discord4j.core.object.reaction.*;
 import discord4j.core.spec.*;
 import discord4j.rest.util.*;
+import discord4j.store.api.util.LongLongTuple2;
+import inside.Settings;
 import inside.data.entity.*;
 import inside.data.service.EntityRetriever;
 import inside.service.MessageService;
@@ -17,14 +22,12 @@ import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.*;
-import reactor.math.MathFlux;
+import reactor.util.annotation.Nullable;
 import reactor.util.context.Context;
-import reactor.util.function.Tuples;
 
 import java.time.*;
 import java.time.format.*;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static inside.util.ContextUtil.*;
@@ -34,6 +37,7 @@ import static reactor.function.TupleUtils.function;
 public class StarboardEventHandler extends ReactiveEventAdapter{
     private static final Color offsetColor = Color.of(0xffefc0), targetColor = Color.of(0xdaa520);
     private static final float lerpStep = 1.0E-05f;
+    private static final int backfillLimit = 1000;
 
     @Autowired
     private EntityRetriever entityRetriever;
@@ -41,15 +45,89 @@ public class StarboardEventHandler extends ReactiveEventAdapter{
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private Settings settings;
+
+    private final Cache<LongLongTuple2, ReactionCounter> counters = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .maximumSize(10000)
+            .build();
+
+    @Override
+    public Publisher<?> onGuildCreate(GuildCreateEvent event){
+        Guild guild = event.getGuild();
+        return entityRetriever.getStarboardConfigById(guild.getId())
+                .filter(config -> config.isEnabled() && config.starboardChannelId().isPresent() &&
+                        !config.starboardChannelId().equals(config.indexedChannelId()))
+                .flatMap(config -> backfill(guild, config));
+    }
+
     @Override
     public Publisher<?> onReactionAdd(ReactionAddEvent event){
-        ReactionEmoji emoji = event.getEmoji();
-        Snowflake guildId = event.getGuildId().orElse(null);
-        Mono<User> author = event.getMessage().map(Message::getAuthor).flatMap(Mono::justOrEmpty);
-        if(guildId == null){
-            return Mono.empty();
-        }
+        return Mono.justOrEmpty(event.getGuildId()).flatMap(guildId -> onReaction(event.getClient(), guildId,
+                event.getChannelId(), event.getMessageId(), event.getEmoji(), 1));
+    }
+
+    @Override
+    public Publisher<?> onReactionRemove(ReactionRemoveEvent event){
+        return Mono.justOrEmpty(event.getGuildId()).flatMap(guildId -> onReaction(event.getClient(), guildId,
+                event.getChannelId(), event.getMessageId(), event.getEmoji(), -1));
+    }
+
+    // counts are seeded by one message fetch and then kept by the events, the first event of a window schedules the edit
+    private Mono<Void> onReaction(GatewayDiscordClient client, Snowflake guildId, Snowflake channelId,
+                                  Snowflake messageId, ReactionEmoji emoji, int delta){
+        return entityRetriever.getStarboardConfigById(guildId)
+                .filter(config -> config.isEnabled() && config.starboardChannelId().isPresent() &&
+                        config.emojis().stream().map(ReactionEmoji::of).anyMatch(emoji::equals))
+                .flatMap(config -> {
+                    LongLongTuple2 key = LongLongTuple2.of(guildId.asLong(), messageId.asLong());
+                    ReactionCounter counter = counters.get(key, k -> new ReactionCounter());
+                    boolean seed;
+                    boolean schedule;
+                    synchronized(counter){
+                        if(counter.seeded){
+                            counter.counts.merge(emoji, delta, Integer::sum);
+                        }
+                        seed = !counter.seeded && !counter.seeding;
+                        counter.seeding |= seed;
+                        schedule = !counter.scheduled;
+                        counter.scheduled = true;
+                    }
+
+                    if(!schedule){
+                        return Mono.empty();
+                    }
+
+                    Mono<Void> seedCounts = !seed ? Mono.empty() : client.getMessageById(channelId, messageId)
+                            .doOnNext(message -> {
+                                synchronized(counter){
+                                    for(Reaction reaction : message.getReactions()){
+                                        counter.counts.put(reaction.getEmoji(), reaction.getCount());
+                                    }
+                                    counter.seeded = true;
+                                }
+                            })
+                            .onErrorResume(t -> Mono.empty())
+                            .then();
+
+                    return seedCounts.then(Mono.delay(settings.getDiscord().getStarboardUpdateWindow()))
+                            .then(Mono.defer(() -> {
+                                synchronized(counter){
+                                    counter.scheduled = false;
+                                    counter.seeding = false;
+                                    if(!counter.seeded){ // source message is not available
+                                        counters.asMap().remove(key, counter);
+                                        return Mono.empty();
+                                    }
+                                }
+                                return update(client, guildId, channelId, messageId, counter);
+                            }));
+                });
+    }
 
+    private Mono<Void> update(GatewayDiscordClient client, Snowflake guildId, Snowflake sourceChannelId,
+                              Snowflake messageId, ReactionCounter counter){
         Mono<Context> initContext = entityRetriever.getGuildConfigById(guildId)
                 .switchIfEmpty(entityRetriever.createGuildConfig(guildId))
                 .map(guildConfig -> Context.of(KEY_LOCALE, guildConfig.locale(),
@@ -57,117 +135,55 @@ public class StarboardEventHandler extends ReactiveEventAdapter{
 
         Mono<StarboardConfig> starboardConfig = entityRetriever.getStarboardConfigById(guildId);
 
-        Function<List<ReactionEmoji>, Mono<Integer>> emojisCount = emojis -> event.getMessage()
-                .flatMapMany(message -> Flux.fromIterable(message.getReactions()))
-                .filter(reaction -> emojis.contains(reaction.getEmoji()))
-                .map(Reaction::getCount)
-                .as(MathFlux::max);
+        Mono<Message> sourceMessage = client.getMessageById(sourceChannelId, messageId).cache();
 
-        Mono<Starboard> starboard = entityRetriever.getStarboardById(guildId, event.getMessageId());
+        Mono<User> author = sourceMessage.map(Message::getAuthor).flatMap(Mono::justOrEmpty);
 
-        return initContext.zipWith(starboardConfig).zipWhen(tuple -> Mono.just(tuple.getT2().emojis().stream()
-                        .map(ReactionEmoji::of)
-                        .collect(Collectors.toList())),
-                (tuple, emojis) -> Tuples.of(tuple.getT1(), tuple.getT2(), emojis))
-                .flatMap(function((context, config, emojis) -> emojisCount.apply(emojis).flatMap(l -> {
-                    Snowflake channelId = config.starboardChannelId().orElse(null);
-                    if(!config.isEnabled() || channelId == null || !emojis.contains(emoji) || l < config.lowerStarBarrier()){
-                        return Mono.empty();
-                    }
+        Mono<Starboard> starboard = entityRetriever.getStarboardById(guildId, messageId);
 
-                    List<String> formatted = emojis.stream()
-                            .map(DiscordUtil::getEmojiString)
-                            .collect(Collectors.toList());
-
-                    Mono<GuildMessageChannel> starboardChannel = event.getGuild()
-                            .flatMap(guild -> guild.getChannelById(channelId))
-                            .cast(GuildMessageChannel.class);
-
-                    Mono<Message> findIfAbsent = Mono.zip(starboardChannel, event.getMessage(), author)
-                            .flatMap(function((channel, source, user) -> channel.getLastMessageId()
-                            .map(channel::getMessagesBefore).orElse(Flux.empty())
-                            .take(Duration.ofSeconds(4))
-                            .filter(m -> m.getEmbeds().size() == 1 && m.getEmbeds().get(0).getFields().size() >= 1)
-                            .filter(m -> m.getEmbeds().get(0).getFields().get(0)
-                                    .getValue().endsWith(source.getId().asString() + ")")) // match md link
-                            .next()
-                            .flatMap(target -> entityRetriever.createStarboard(guildId, source.getId(), target.getId())
-                                    .thenReturn(target))))
-                            .timeout(Duration.ofSeconds(6), Mono.empty());
-
-                    Mono<Message> targetMessage = starboard.zipWith(starboardChannel)
-                            .flatMap(function((board, channel) -> channel.getMessageById(board.targetMessageId())))
-                            .switchIfEmpty(findIfAbsent);
-
-                    Mono<Message> updateOld = event.getMessage().zipWith(targetMessage)
-                            .flatMap(function((source, target) -> {
-                                var old = Try.ofCallable(() -> target.getEmbeds().get(0)).orElse(null); // IOOB
-                                var embedSpec = EmbedCreateSpec.builder();
-
-                                if(old == null){ // someone remove embed
-
-                                    var authorUser = source.getAuthor().orElseThrow(IllegalStateException::new);
-                                    embedSpec.author(authorUser.getUsername(), null, authorUser.getAvatarUrl());
-
-                                    embedSpec.description(source.getContent());
-                                    embedSpec.footer(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.LONG)
-                                            .withLocale(context.get(KEY_LOCALE))
-                                            .withZone(context.get(KEY_TIMEZONE))
-                                            .format(Instant.now()), null);
-
-                                    Set<Attachment> files = source.getAttachments().stream()
-                                            .filter(att -> !att.getContentType().map(str -> str.startsWith("image")).orElse(false))
-                                            .collect(Collectors.toSet());
-
-                                    if(files.size() != 0){
-                                        String key = files.size() == 1 ? "starboard.attachment" : "starboard.attachments";
-                                        embedSpec.addField(messageService.get(context, key), files.stream()
-                                                .map(att -> String.format("[%s](%s)%n", att.getFilename(), att.getUrl()))
-                                                .collect(Collectors.joining()), false);
-                                    }
+        return initContext.zipWith(starboardConfig).flatMap(function((context, config) -> {
+            Snowflake channelId = config.starboardChannelId().orElse(null);
+            if(!config.isEnabled() || channelId == null){
+                return Mono.empty();
+            }
 
-                                    source.getAttachments().stream()
-                                            .filter(att -> att.getContentType().map(str -> str.startsWith("image")).orElse(false))
-                                            .map(Attachment::getUrl)
-                                            .findFirst().ifPresent(embedSpec::image);
-                                }else{
-
-                                    embedSpec.description(old.getDescription().orElseThrow(IllegalStateException::new));
-                                    var embedAuthor = old.getAuthor().orElseThrow(IllegalStateException::new);
-                                    embedSpec.author(embedAuthor.getName().orElseThrow(IllegalStateException::new), null,
-                                            embedAuthor.getIconUrl().orElseThrow(IllegalStateException::new));
-                                    embedSpec.fields(old.getFields().stream()
-                                            .map(field -> EmbedCreateFields.Field.of(field.getName(), field.getValue(), field.isInline()))
-                                            .collect(Collectors.toList()));
-                                    old.getImage().map(Embed.Image::getUrl).ifPresent(embedSpec::image);
-                                }
+            List<ReactionEmoji> emojis = config.emojis().stream()
+                    .map(ReactionEmoji::of)
+                    .collect(Collectors.toList());
 
-                                embedSpec.color(lerp(offsetColor, targetColor, Mathf.round(l / 6f, lerpStep)));
+            List<String> formatted = emojis.stream()
+                    .map(DiscordUtil::getEmojiString)
+                    .collect(Collectors.toList());
 
-                                return target.edit(MessageEditSpec.builder()
-                                        .addEmbed(embedSpec.build())
-                                        .contentOrNull(messageService.format(context, "starboard.format",
-                                                formatted.get(Mathf.clamp((l - 1) / 5, 0, formatted.size() - 1)),
-                                                l, DiscordUtil.getChannelMention(source.getChannelId())))
-                                        .build());
-                            }));
+            int l = counter.max(emojis);
 
-                    Mono<Message> createNew = Mono.zip(starboardChannel, event.getMessage(), author).flatMap(function((channel, source, user) -> {
-                        if(source.getInteraction().isPresent() || source.getWebhookId().isPresent()){
-                            return Mono.empty(); // don't handle webhooks and interactions
-                        }
+            Mono<GuildMessageChannel> starboardChannel = client.getChannelById(channelId)
+                    .ofType(GuildMessageChannel.class);
 
+            Mono<Message> targetMessage = starboard.zipWith(starboardChannel)
+                    .flatMap(function((board, channel) -> channel.getMessageById(board.targetMessageId())));
+
+            if(l < config.lowerStarBarrier()){
+                return targetMessage.flatMap(Message::delete)
+                        .and(entityRetriever.deleteStarboardById(guildId, messageId));
+            }
+
+            Mono<Message> updateOld = targetMessage.flatMap(target -> {
+                var old = Try.ofCallable(() -> target.getEmbeds().get(0)).orElse(null); // IOOB
+
+                Mono<EmbedCreateSpec.Builder> embed;
+                if(old == null){ // someone remove embed
+                    embed = sourceMessage.map(source -> {
                         var embedSpec = EmbedCreateSpec.builder();
+                        var authorUser = source.getAuthor().orElseThrow(IllegalStateException::new);
+                        embedSpec.author(authorUser.getUsername(), null, authorUser.getAvatarUrl());
 
+                        embedSpec.description(source.getContent());
                         embedSpec.footer(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.LONG)
                                 .withLocale(context.get(KEY_LOCALE))
                                 .withZone(context.get(KEY_TIMEZONE))
                                 .format(Instant.now()), null);
-                        embedSpec.author(user.getUsername(), null, user.getAvatarUrl());
-                        embedSpec.description(source.getContent());
-                        embedSpec.color(lerp(offsetColor, targetColor, Mathf.round(l / 6f, lerpStep)));
-                        embedSpec.addField(messageService.get(context, "starboard.source"), messageService.format(context, "starboard.jump",
-                                guildId.asString(), source.getChannelId().asString(), source.getId().asString()), false);
+
                         Set<Attachment> files = source.getAttachments().stream()
                                 .filter(att -> !att.getContentType().map(str -> str.startsWith("image")).orElse(false))
                                 .collect(Collectors.toSet());
@@ -183,115 +199,76 @@ public class StarboardEventHandler extends ReactiveEventAdapter{
                                 .filter(att -> att.getContentType().map(str -> str.startsWith("image")).orElse(false))
                                 .map(Attachment::getUrl)
                                 .findFirst().ifPresent(embedSpec::image);
-
-                        return channel.createMessage(MessageCreateSpec.builder()
-                                .content(messageService.format(
-                                        context, "starboard.format", formatted.get(Mathf.clamp((l - 1) / 5, 0, formatted.size() - 1)),
-                                        l, DiscordUtil.getChannelMention(source.getChannelId())))
-                                .allowedMentions(AllowedMentions.suppressAll())
-                                .addEmbed(embedSpec.build())
-                                .build())
-                                .flatMap(target -> entityRetriever.createStarboard(guildId, source.getId(), target.getId())
-                                        .thenReturn(target));
-                    }));
-
-                    return updateOld.switchIfEmpty(createNew);
-                }).contextWrite(context)));
-    }
-
-    @Override
-    public Publisher<?> onReactionRemove(ReactionRemoveEvent event){
-        ReactionEmoji emoji = event.getEmoji();
-        Snowflake guildId = event.getGuildId().orElse(null);
-        if(guildId == null){
-            return Mono.empty();
-        }
-
-        Mono<Context> initContext = entityRetriever.getGuildConfigById(guildId)
-                .switchIfEmpty(entityRetriever.createGuildConfig(guildId))
-                .map(guildConfig -> Context.of(KEY_LOCALE, guildConfig.locale(),
-                        KEY_TIMEZONE, guildConfig.timeZone()));
-
-        Mono<StarboardConfig> starboardConfig = entityRetriever.getStarboardConfigById(guildId);
-
-        Function<List<ReactionEmoji>, Mono<Integer>> emojisCount = emojis -> event.getMessage()
-                .flatMapMany(message -> Flux.fromIterable(message.getReactions()))
-                .filter(reaction -> emojis.contains(reaction.getEmoji()))
-                .map(Reaction::getCount)
-                .as(MathFlux::max)
-                .defaultIfEmpty(0);
-
-        return initContext.zipWith(starboardConfig).zipWhen(tuple -> Mono.just(tuple.getT2().emojis().stream()
-                        .map(ReactionEmoji::of)
-                        .collect(Collectors.toList())),
-                (tuple, emojis) -> Tuples.of(tuple.getT1(), tuple.getT2(), emojis))
-                .flatMap(function((context, config, emojis) -> emojisCount.apply(emojis).flatMap(l -> {
-                    Snowflake channelId = config.starboardChannelId().orElse(null);
-                    if(!config.isEnabled() || channelId == null || !emojis.contains(emoji)){
-                        return Mono.empty();
-                    }
-
-                    List<String> formatted = emojis.stream()
-                            .map(DiscordUtil::getEmojiString)
-                            .collect(Collectors.toList());
-
-                    Mono<GuildMessageChannel> starboardChannel = event.getGuild().flatMap(guild -> guild.getChannelById(channelId))
-                            .cast(GuildMessageChannel.class);
-
-                    Mono<Message> findIfAbsent = Mono.zip(starboardChannel, event.getMessage())
-                            .flatMap(function((channel, source) -> channel.getLastMessageId()
-                                    .map(channel::getMessagesBefore).orElse(Flux.empty())
-                            .take(Duration.ofSeconds(4))
-                            .filter(m -> m.getEmbeds().size() == 1 && m.getEmbeds().get(0).getFields().size() >= 1)
-                            .filter(m -> m.getEmbeds().get(0).getFields().get(0)
-                                    .getValue().endsWith(source.getId().asString() + ")")) // match md link
-                            .next()
-                            .flatMap(target -> entityRetriever.createStarboard(guildId, source.getId(), target.getId())
-                                    .thenReturn(target))))
-                            .timeout(Duration.ofSeconds(6), Mono.empty());
-
-                    Mono<Starboard> starboard = entityRetriever.getStarboardById(guildId, event.getMessageId());
-
-                    Mono<Message> targetMessage = starboard.zipWith(starboardChannel)
-                            .flatMap(function((board, channel) -> channel.getMessageById(board.targetMessageId())))
-                            .switchIfEmpty(findIfAbsent);
-
-                    return starboardChannel.zipWith(targetMessage)
-                            .flatMap(function((channel, target) -> {
-                                if(l < config.lowerStarBarrier()){
-                                    return target.delete().and(entityRetriever.deleteStarboardById(guildId, event.getMessageId()));
-                                }
-
-                                var old = Try.ofCallable(() -> target.getEmbeds().get(0)).orElse(null); // IOOB
-                                var embedSpec = EmbedCreateSpec.builder();
-
-                                if(old == null){ // someone remove embed
-
-                                    //TODO: implement
-                                    return Mono.empty();
-                                }else{
-
-                                    embedSpec.description(old.getDescription().orElseThrow(IllegalStateException::new));
-                                    var embedAuthor = old.getAuthor().orElseThrow(IllegalStateException::new);
-                                    embedSpec.author(embedAuthor.getName().orElseThrow(IllegalStateException::new), null,
-                                            embedAuthor.getIconUrl().orElseThrow(IllegalStateException::new));
-                                    embedSpec.fields(old.getFields().stream()
-                                            .map(field -> EmbedCreateFields.Field.of(field.getName(), field.getValue(), field.isInline()))
-                                            .collect(Collectors.toList()));
-                                    old.getImage().map(Embed.Image::getUrl).ifPresent(embedSpec::image);
-                                }
-
-                                embedSpec.color(lerp(offsetColor, targetColor, Mathf.round(l / 6f, lerpStep)));
-
-                                Snowflake sourceChannelId = event.getChannelId();
-                                return target.edit(MessageEditSpec.builder()
-                                        .addEmbed(embedSpec.build())
-                                        .contentOrNull(messageService.format(context, "starboard.format",
-                                                formatted.get(Mathf.clamp((l - 1) / 5, 0, formatted.size() - 1)),
-                                                l, DiscordUtil.getChannelMention(sourceChannelId)))
-                                        .build());
-                            }));
-        }).contextWrite(context)));
+                        return embedSpec;
+                    });
+                }else{
+                    var embedSpec = EmbedCreateSpec.builder();
+                    embedSpec.description(old.getDescription().orElseThrow(IllegalStateException::new));
+                    var embedAuthor = old.getAuthor().orElseThrow(IllegalStateException::new);
+                    embedSpec.author(embedAuthor.getName().orElseThrow(IllegalStateException::new), null,
+                            embedAuthor.getIconUrl().orElseThrow(IllegalStateException::new));
+                    embedSpec.fields(old.getFields().stream()
+                            .map(field -> EmbedCreateFields.Field.of(field.getName(), field.getValue(), field.isInline()))
+                            .collect(Collectors.toList()));
+                    old.getImage().map(Embed.Image::getUrl).ifPresent(embedSpec::image);
+                    embed = Mono.just(embedSpec);
+                }
+
+                return embed.flatMap(embedSpec -> target.edit(MessageEditSpec.builder()
+                        .addEmbed(embedSpec.color(lerp(offsetColor, targetColor, Mathf.round(l / 6f, lerpStep))).build())
+                        .contentOrNull(messageService.format(context, "starboard.format",
+                                formatted.get(Mathf.clamp((l - 1) / 5, 0, formatted.size() - 1)),
+                                l, DiscordUtil.getChannelMention(sourceChannelId)))
+                        .build()));
+            });
+
+            Mono<Message> createNew = Mono.zip(starboardChannel, sourceMessage, author).flatMap(function((channel, source, user) -> {
+                if(source.getInteraction().isPresent() || source.getWebhookId().isPresent()){
+                    return Mono.empty(); // don't handle webhooks and interactions
+                }
+
+                var embedSpec = EmbedCreateSpec.builder();
+
+                embedSpec.footer(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.LONG)
+                        .withLocale(context.get(KEY_LOCALE))
+                        .withZone(context.get(KEY_TIMEZONE))
+                        .format(Instant.now()), null);
+                embedSpec.author(user.getUsername(), null, user.getAvatarUrl());
+                embedSpec.description(source.getContent());
+                embedSpec.color(lerp(offsetColor, targetColor, Mathf.round(l / 6f, lerpStep)));
+                embedSpec.addField(messageService.get(context, "starboard.source"), messageService.format(context, "starboard.jump",
+                        guildId.asString(), source.getChannelId().asString(), source.getId().asString()), false);
+                Set<Attachment> files = source.getAttachments().stream()
+                        .filter(att -> !att.getContentType().map(str -> str.startsWith("image")).orElse(false))
+                        .collect(Collectors.toSet());
+
+                if(files.size() != 0){
+                    String key = files.size() == 1 ? "starboard.attachment" : "starboard.attachments";
+                    embedSpec.addField(messageService.get(context, key), files.stream()
+                            .map(att -> String.format("[%s](%s)%n", att.getFilename(), att.getUrl()))
+                            .collect(Collectors.joining()), false);
+                }
+
+                source.getAttachments().stream()
+                        .filter(att -> att.getContentType().map(str -> str.startsWith("image")).orElse(false))
+                        .map(Attachment::getUrl)
+                        .findFirst().ifPresent(embedSpec::image);
+
+                return channel.createMessage(MessageCreateSpec.builder()
+                        .content(messageService.format(
+                                context, "starboard.format", formatted.get(Mathf.clamp((l - 1) / 5, 0, formatted.size() - 1)),
+                                l, DiscordUtil.getChannelMention(source.getChannelId())))
+                        .allowedMentions(AllowedMentions.suppressAll())
+                        .addEmbed(embedSpec.build())
+                        .build())
+                        .flatMap(target -> starboard.flatMap(board -> entityRetriever.update(board, // target was deleted
+                                        b -> b.targetMessageId(target.getId())).thenReturn(board))
+                                .switchIfEmpty(entityRetriever.createStarboard(guildId, source.getId(), target.getId()))
+                                .thenReturn(target));
+            }));
+
+            return updateOld.switchIfEmpty(createNew).then().contextWrite(context);
+        }));
     }
 
     @Override
@@ -305,6 +282,8 @@ public class StarboardEventHandler extends ReactiveEventAdapter{
 
         Mono<Starboard> starboard = entityRetriever.getStarboardById(guildId, event.getMessageId());
 
+        counters.invalidate(LongLongTuple2.of(guildId.asLong(), event.getMessageId().asLong()));
+
         return starboardConfig.flatMap(config -> {
             Snowflake channelId = config.starboardChannelId().orElse(null);
             if(!config.isEnabled() || channelId == null){
@@ -321,8 +300,42 @@ public class StarboardEventHandler extends ReactiveEventAdapter{
 
     @Override
     public Publisher<?> onMessageDelete(MessageDeleteEvent event){
-        return Mono.justOrEmpty(event.getGuildId()).flatMap(guildId ->
-                entityRetriever.deleteStarboardById(guildId, event.getMessageId()));
+        return Mono.justOrEmpty(event.getGuildId()).flatMap(guildId -> {
+            counters.invalidate(LongLongTuple2.of(guildId.asLong(), event.getMessageId().asLong()));
+            return entityRetriever.deleteStarboardById(guildId, event.getMessageId());
+        });
+    }
+
+    // one bounded pass over the channel history for boards posted before they were stored
+    private Mono<Void> backfill(Guild guild, StarboardConfig config){
+        Snowflake channelId = config.starboardChannelId().orElseThrow(IllegalStateException::new);
+        Snowflake selfId = guild.getClient().getSelfId();
+        return guild.getChannelById(channelId)
+                .ofType(GuildMessageChannel.class)
+                .flatMapMany(channel -> channel.getMessagesBefore(Snowflake.of(Instant.now())))
+                .take(backfillLimit)
+                .filter(m -> m.getAuthor().map(user -> user.getId().equals(selfId)).orElse(false))
+                .filter(m -> m.getEmbeds().size() == 1 && m.getEmbeds().get(0).getFields().size() >= 1)
+                .concatMap(target -> Mono.justOrEmpty(parseSourceId(target.getEmbeds().get(0).getFields().get(0).getValue()))
+                        .filterWhen(sourceId -> entityRetriever.getStarboardById(guild.getId(), sourceId)
+                                .hasElement().map(exists -> !exists))
+                        .flatMap(sourceId -> entityRetriever.createStarboard(guild.getId(), sourceId, target.getId())))
+                .then(entityRetriever.update(config, c -> c.indexedChannelId(channelId)));
+    }
+
+    // the first field is a jump link which ends with the source message id
+    @Nullable
+    private static Snowflake parseSourceId(String link){
+        int end = link.lastIndexOf(')');
+        int start = end != -1 ? link.lastIndexOf('/', end) : -1;
+        if(start == -1){
+            return null;
+        }
+        try{
+            return Snowflake.of(link.substring(start + 1, end));
+        }catch(NumberFormatException e){
+            return null;
+        }
     }
 
     private Color lerp(Color source, Color target, float t){
@@ -342,4 +355,17 @@ public class StarboardEventHandler extends ReactiveEventAdapter{
     private int toIntBits(Color c){
         return (int)(255f * c.getBlue()) << 16 | (int)(255f * c.getGreen()) << 8 | (int)(255f * c.getRed());
     }
+
+    private static class ReactionCounter{
+        private final Map<ReactionEmoji, Integer> counts = new HashMap<>();
+        private boolean seeded;
+        private boolean seeding;
+        private boolean scheduled;
+
+        private synchronized int max(List<ReactionEmoji> emojis){
+            return emojis.stream()
+                    .mapToInt(emoji -> counts.getOrDefault(emoji, 0))
+                    .max().orElse(0);
+        }
+    }
 }
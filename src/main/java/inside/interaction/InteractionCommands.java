@@ -71,6 +71,9 @@ public class InteractionCommands{
     }
 
     public static abstract class OwnerCommand extends GuildCommand{
+        @Autowired
+        protected AdminService adminService;
+
         @Override
         public Mono<Boolean> filter(InteractionCommandEnvironment env){
             Member member = env.event().getInteraction().getMember().orElse(null);
@@ -78,13 +81,7 @@ public class InteractionCommands{
                 return Mono.just(false);
             }
 
-            Mono<Boolean> isOwner = member.getGuild().flatMap(Guild::getOwner)
-                    .map(member::equals);
-
-            Mono<Boolean> isGuildManager = member.getHighestRole()
-                    .map(role -> role.getPermissions().contains(Permission.MANAGE_GUILD));
-
-            Mono<Boolean> resp = or(isOwner, isGuildManager)
+            Mono<Boolean> resp = or(adminService.isOwner(member), adminService.isGuildManager(member))
                     .filterWhen(bool -> bool ? Mono.just(true) : messageService.text(env.event(), "command.owner-only")
                             .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true)).thenReturn(false));
 
@@ -143,8 +140,8 @@ public class InteractionCommands{
                                 .flatMap(function((choice, enums) -> Mono.defer(() -> {
                                     List<EmojiData> emojis = starboardConfig.emojis();
                                     if(choice.equals("clear")){
-                                        emojis.clear();
-                                        return messageService.text(env.event(), "command.settings.emojis.clear");
+                                        return messageService.text(env.event(), "command.settings.emojis.clear")
+                                                .and(entityRetriever.update(starboardConfig, c -> c.emojis(List.of())));
                                     }
 
                                     boolean add = choice.equals("add");
@@ -162,9 +159,14 @@ public class InteractionCommands{
                                                     .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                         }
 
-                                        EmojiData value = emojis.remove(idx);
+                                        EmojiData value = emojis.get(idx);
                                         return messageService.text(env.event(), "command.settings.removed",
-                                                DiscordUtil.getEmojiString(value));
+                                                DiscordUtil.getEmojiString(value))
+                                                .and(entityRetriever.update(starboardConfig, c -> {
+                                                    List<EmojiData> copy = new ArrayList<>(c.emojis());
+                                                    copy.remove(value);
+                                                    c.emojis(copy);
+                                                }));
                                     }
 
                                     String[] text = enums.split("(\\s+)?,(\\s+)?");
@@ -186,26 +188,32 @@ public class InteractionCommands{
                                                         return messageService.err(env.event(), "command.settings.emojis.limit")
                                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                                     }
-
-                                                    emojis.addAll(list);
                                                 }else{
                                                     tmp.removeAll(list);
                                                     if(tmp.size() < 1){
                                                         return messageService.err(env.event(), "command.settings.emojis.no-emojis")
                                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                                     }
-
-                                                    emojis.removeAll(list);
                                                 }
 
                                                 if(add){
                                                     return messageService.text(env.event(), "command.settings.added",
-                                                            formatCollection(list, DiscordUtil::getEmojiString));
+                                                            formatCollection(list, DiscordUtil::getEmojiString))
+                                                            .and(entityRetriever.update(starboardConfig, c -> {
+                                                                List<EmojiData> copy = new ArrayList<>(c.emojis());
+                                                                copy.addAll(list);
+                                                                c.emojis(copy);
+                                                            }));
                                                 }
                                                 return messageService.text(env.event(), "command.settings.removed",
-                                                        formatCollection(list, DiscordUtil::getEmojiString));
+                                                        formatCollection(list, DiscordUtil::getEmojiString))
+                                                        .and(entityRetriever.update(starboardConfig, c -> {
+                                                            List<EmojiData> copy = new ArrayList<>(c.emojis());
+                                                            copy.removeAll(list);
+                                                            c.emojis(copy);
+                                                        }));
                                             });
-                                }).and(entityRetriever.save(starboardConfig))));
+                                })));
 
                         Mono<Void> lowerStarBarrierCommand = Mono.justOrEmpty(group.getOption("lower-star-barrier"))
                                 .switchIfEmpty(emojisCommand.then(Mono.empty()))
@@ -224,9 +232,8 @@ public class InteractionCommands{
                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                     }
 
-                                    starboardConfig.lowerStarBarrier(i);
                                     return messageService.text(env.event(), "command.settings.lower-star-barrier.update", i)
-                                            .and(entityRetriever.save(starboardConfig));
+                                            .and(entityRetriever.update(starboardConfig, c -> c.lowerStarBarrier(i)));
                                 });
 
                         Mono<Void> channelCommand = Mono.justOrEmpty(group.getOption("channel"))
@@ -240,10 +247,9 @@ public class InteractionCommands{
                                         .flatMap(ApplicationCommandInteractionOptionValue::asChannel))
                                 .map(Channel::getId)
                                 .flatMap(channelId -> {
-                                    starboardConfig.starboardChannelId(channelId);
                                     return messageService.text(env.event(), "command.settings.starboard-channel.update",
                                             DiscordUtil.getChannelMention(channelId))
-                                            .and(entityRetriever.save(starboardConfig));
+                                            .and(entityRetriever.update(starboardConfig, c -> c.starboardChannelId(channelId)));
                                 });
 
                         return Mono.justOrEmpty(group.getOption("enable"))
@@ -254,10 +260,9 @@ public class InteractionCommands{
                                 .switchIfEmpty(messageService.text(env.event(), "command.settings.starboard-enable.update",
                                         formatBool.apply(starboardConfig.isEnabled())).then(Mono.empty()))
                                 .flatMap(bool -> {
-                                    starboardConfig.setEnabled(bool);
                                     return messageService.text(env.event(), "command.settings.starboard-enable.update",
                                             formatBool.apply(bool))
-                                            .and(entityRetriever.save(starboardConfig));
+                                            .and(entityRetriever.update(starboardConfig, c -> c.setEnabled(bool)));
                                 });
                     }));
 
@@ -279,10 +284,9 @@ public class InteractionCommands{
                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                     }
 
-                                    activityConfig.keepCountingDuration(duration);
                                     return messageService.text(env.event(), "command.settings.keep-counting-duration.update",
                                             formatDuration.apply(duration))
-                                            .and(entityRetriever.save(activityConfig));
+                                            .and(entityRetriever.update(activityConfig, c -> c.keepCountingDuration(duration)));
                                 });
 
                         Mono<Void> messageBarrierCommand = Mono.justOrEmpty(group.getOption("message-barrier"))
@@ -302,9 +306,8 @@ public class InteractionCommands{
                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                     }
 
-                                    activityConfig.messageBarrier(i);
                                     return messageService.text(env.event(), "command.settings.message-barrier.update", i)
-                                            .and(entityRetriever.save(activityConfig));
+                                            .and(entityRetriever.update(activityConfig, c -> c.messageBarrier(i)));
                                 });
 
                         Mono<Void> activeUserRoleCommand = Mono.justOrEmpty(group.getOption("active-user-role"))
@@ -318,10 +321,9 @@ public class InteractionCommands{
                                         .flatMap(ApplicationCommandInteractionOptionValue::asRole))
                                 .map(Role::getId)
                                 .flatMap(roleId -> {
-                                    activityConfig.roleId(roleId);
                                     return messageService.text(env.event(), "command.settings.active-user-role.update",
                                             DiscordUtil.getRoleMention(roleId))
-                                            .and(entityRetriever.save(activityConfig));
+                                            .and(entityRetriever.update(activityConfig, c -> c.roleId(roleId)));
                                 });
 
                         return Mono.justOrEmpty(group.getOption("enable"))
@@ -332,9 +334,8 @@ public class InteractionCommands{
                                 .switchIfEmpty(messageService.text(env.event(), "command.settings.activities-enable.update",
                                         formatBool.apply(activityConfig.isEnabled())).then(Mono.empty()))
                                 .flatMap(bool -> {
-                                    activityConfig.setEnabled(bool);
                                     return messageService.text(env.event(), "command.settings.activities-enable.update", formatBool.apply(bool))
-                                            .and(entityRetriever.save(activityConfig));
+                                            .and(entityRetriever.update(activityConfig, c -> c.setEnabled(bool)));
                                 });
                     }));
 
@@ -354,12 +355,9 @@ public class InteractionCommands{
                                     AdminActionType action = Try.ofCallable(() ->
                                             AdminActionType.valueOf(str)).toOptional().orElse(null);
                                     Objects.requireNonNull(action, "action"); // impossible
-                                    adminConfig.thresholdAction(action);
-
                                     return messageService.text(env.event(), "command.settings.threshold-action.update",
-                                            String.format("%s (`%s`)", messageService.getEnum(env.context(), adminConfig.thresholdAction()),
-                                                    adminConfig.thresholdAction()))
-                                            .and(entityRetriever.save(adminConfig));
+                                            String.format("%s (`%s`)", messageService.getEnum(env.context(), action), action))
+                                            .and(entityRetriever.update(adminConfig, c -> c.thresholdAction(action)));
                                 });
 
                         Mono<Void> warningsCommand = Mono.justOrEmpty(group.getOption("warnings"))
@@ -370,9 +368,8 @@ public class InteractionCommands{
                                 .flatMap(opt -> Mono.justOrEmpty(opt.getValue())
                                         .map(ApplicationCommandInteractionOptionValue::asLong))
                                 .flatMap(number -> {
-                                    adminConfig.maxWarnCount(number);
                                     return messageService.text(env.event(), "command.settings.warnings.update", number)
-                                            .and(entityRetriever.save(adminConfig));
+                                            .and(entityRetriever.update(adminConfig, c -> c.maxWarnCount(number)));
                                 });
 
                         Mono<Void> muteRoleCommand = Mono.justOrEmpty(group.getOption("mute-role"))
@@ -386,10 +383,9 @@ public class InteractionCommands{
                                         .flatMap(ApplicationCommandInteractionOptionValue::asRole))
                                 .map(Role::getId)
                                 .flatMap(roleId -> {
-                                    adminConfig.muteRoleId(roleId);
                                     return messageService.text(env.event(), "command.settings.mute-role.update",
                                             DiscordUtil.getRoleMention(roleId))
-                                            .and(entityRetriever.save(adminConfig));
+                                            .and(entityRetriever.update(adminConfig, c -> c.muteRoleId(roleId)));
                                 });
 
                         Mono<Void> adminRolesCommand = Mono.justOrEmpty(group.getOption("admin-roles"))
@@ -407,42 +403,48 @@ public class InteractionCommands{
                                                 .flatMap(subopt -> Mono.justOrEmpty(subopt.getValue()))
                                                 .map(ApplicationCommandInteractionOptionValue::asString)))
                                 .flatMap(function((choice, enums) -> Mono.defer(() -> {
-                                    Set<Snowflake> roleIds = adminConfig.adminRoleIds();
                                     if(choice.equals("clear")){
-                                        roleIds.clear();
-                                        return messageService.text(env.event(), "command.settings.admin-roles.clear");
+                                        return messageService.text(env.event(), "command.settings.admin-roles.clear")
+                                                .and(entityRetriever.update(adminConfig, c -> {
+                                                    c.adminRoleIds(Set.of());
+                                                    adminService.invalidatePermissions(c.guildId());
+                                                }));
                                     }
 
                                     boolean add = choice.equals("add");
 
                                     List<Snowflake> removed = new ArrayList<>();
                                     String[] text = enums.split("(\\s+)?,(\\s+)?");
-                                    Mono<Void> fetch = Flux.fromArray(text)
+                                    return Flux.fromArray(text)
                                             .flatMap(str -> env.event().getInteraction().getGuild()
                                             .flatMapMany(Guild::getRoles)
                                             .filter(role -> MessageUtil.parseRoleId(str) != null &&
-                                                    role.getId().equals(MessageUtil.parseRoleId(str)))
-                                            .doOnNext(role -> {
+                                                    role.getId().equals(MessageUtil.parseRoleId(str))))
+                                            .map(Role::getId)
+                                            .collectList()
+                                            .flatMap(ids -> entityRetriever.update(adminConfig, c -> {
+                                                Set<Snowflake> roleIds = c.adminRoleIds();
                                                 if(add){
-                                                    roleIds.add(role.getId());
+                                                    roleIds.addAll(ids);
                                                 }else{
-                                                    if(roleIds.remove(role.getId())){
-                                                        removed.add(role.getId());
+                                                    for(Snowflake id : ids){
+                                                        if(roleIds.remove(id)){
+                                                            removed.add(id);
+                                                        }
                                                     }
                                                 }
+                                                c.adminRoleIds(roleIds);
+                                                adminService.invalidatePermissions(c.guildId());
                                             }))
-                                            .then();
-
-                                    return fetch.then(Mono.defer(() -> {
-                                        adminConfig.adminRoleIds(roleIds);
-                                        if(add){
-                                            return messageService.text(env.event(), "command.settings.added",
-                                                    formatCollection(roleIds, DiscordUtil::getRoleMention));
-                                        }
-                                        return messageService.text(env.event(), "command.settings.removed",
-                                                formatCollection(removed, DiscordUtil::getRoleMention));
-                                    }));
-                                }).and(entityRetriever.save(adminConfig))));
+                                            .then(Mono.defer(() -> {
+                                                if(add){
+                                                    return messageService.text(env.event(), "command.settings.added",
+                                                            formatCollection(adminConfig.adminRoleIds(), DiscordUtil::getRoleMention));
+                                                }
+                                                return messageService.text(env.event(), "command.settings.removed",
+                                                        formatCollection(removed, DiscordUtil::getRoleMention));
+                                            }));
+                                })));
 
                         Mono<Void> warnDelayCommand = Mono.justOrEmpty(group.getOption("warn-duration"))
                                 .switchIfEmpty(adminRolesCommand.then(Mono.empty()))
@@ -458,10 +460,9 @@ public class InteractionCommands{
                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                     }
 
-                                    adminConfig.warnExpireDelay(duration);
                                     return messageService.text(env.event(), "command.settings.warn-duration.update",
                                             formatDuration.apply(duration))
-                                            .and(entityRetriever.save(adminConfig));
+                                            .and(entityRetriever.update(adminConfig, c -> c.warnExpireDelay(duration)));
                                 });
 
                         return Mono.justOrEmpty(group.getOption("duration"))
@@ -478,10 +479,9 @@ public class InteractionCommands{
                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                     }
 
-                                    adminConfig.muteBaseDelay(duration);
                                     return messageService.text(env.event(), "command.settings.base-duration.update",
                                             formatDuration.apply(duration))
-                                            .and(entityRetriever.save(adminConfig));
+                                            .and(entityRetriever.update(adminConfig, c -> c.muteBaseDelay(duration)));
                                 });
                     }));
 
@@ -500,10 +500,9 @@ public class InteractionCommands{
                                         .flatMap(ApplicationCommandInteractionOptionValue::asChannel))
                                 .map(Channel::getId)
                                 .flatMap(channelId -> {
-                                    auditConfig.logChannelId(channelId);
                                     return messageService.text(env.event(), "command.settings.log-channel.update",
                                             DiscordUtil.getChannelMention(channelId))
-                                            .and(entityRetriever.save(auditConfig));
+                                            .and(entityRetriever.update(auditConfig, c -> c.logChannelId(channelId)));
                                 });
 
                         Mono<Void> actionsCommand = Mono.justOrEmpty(group.getOption("actions"))
@@ -535,10 +534,9 @@ public class InteractionCommands{
                                                 .flatMap(subopt -> Mono.justOrEmpty(subopt.getValue()))
                                                 .map(ApplicationCommandInteractionOptionValue::asString)))
                                 .flatMap(function((choice, enums) -> Mono.defer(() -> {
-                                    Set<AuditActionType> flags = auditConfig.types();
                                     if(choice.equals("clear")){
-                                        flags.clear();
-                                        return messageService.text(env.event(), "command.settings.actions.clear");
+                                        return messageService.text(env.event(), "command.settings.actions.clear")
+                                                .and(entityRetriever.update(auditConfig, c -> c.types(Set.of())));
                                     }
 
                                     List<Tuple2<AuditActionType, String>> all = Arrays.stream(AuditActionType.all)
@@ -547,35 +545,42 @@ public class InteractionCommands{
 
                                     boolean add = choice.equals("add");
 
-                                    Set<String> removed = new HashSet<>();
+                                    Map<AuditActionType, String> selected = new LinkedHashMap<>();
                                     if(enums.equalsIgnoreCase("all") && add){
-                                        flags.addAll(all.stream().map(Tuple2::getT1).collect(Collectors.toSet()));
+                                        all.forEach(consumer(selected::put));
                                     }else{
                                         String[] text = enums.split("(\\s+)?,(\\s+)?");
                                         for(String s : text){
                                             all.stream().filter(predicate((type, str) -> str.equalsIgnoreCase(s)))
                                                     .findFirst()
-                                                    .ifPresent(consumer((type, str) -> {
-                                                        if(add){
-                                                            flags.add(type);
-                                                        }else{
-                                                            if(flags.remove(type)){
-                                                                removed.add(str);
-                                                            }
-                                                        }
-                                                    }));
+                                                    .ifPresent(consumer(selected::put));
                                         }
                                     }
 
-                                    if(add){
-                                        String formatted = formatCollection(flags, type ->
-                                                messageService.getEnum(env.context(), type));
+                                    Set<String> removed = new HashSet<>();
+                                    return entityRetriever.update(auditConfig, c -> {
+                                        Set<AuditActionType> flags = new HashSet<>(c.types());
+                                        if(add){
+                                            flags.addAll(selected.keySet());
+                                        }else{
+                                            selected.forEach((type, str) -> {
+                                                if(flags.remove(type)){
+                                                    removed.add(str);
+                                                }
+                                            });
+                                        }
+                                        c.types(flags);
+                                    }).then(Mono.defer(() -> {
+                                        if(add){
+                                            String formatted = formatCollection(auditConfig.types(), type ->
+                                                    messageService.getEnum(env.context(), type));
 
-                                        return messageService.text(env.event(), "command.settings.added", formatted);
-                                    }
-                                    return messageService.text(env.event(), "command.settings.removed",
-                                            String.join(", ", removed));
-                                }).and(entityRetriever.save(auditConfig))));
+                                            return messageService.text(env.event(), "command.settings.added", formatted);
+                                        }
+                                        return messageService.text(env.event(), "command.settings.removed",
+                                                String.join(", ", removed));
+                                    }));
+                                })));
 
                         return Mono.justOrEmpty(group.getOption("enable"))
                                 .switchIfEmpty(actionsCommand.then(Mono.empty()))
@@ -585,9 +590,8 @@ public class InteractionCommands{
                                 .switchIfEmpty(messageService.text(env.event(), "command.settings.audit-enable.update",
                                         formatBool.apply(auditConfig.isEnabled())).then(Mono.empty()))
                                 .flatMap(bool -> {
-                                    auditConfig.setEnabled(bool);
                                     return messageService.text(env.event(), "command.settings.audit-enable.update", formatBool.apply(bool))
-                                            .and(entityRetriever.save(auditConfig));
+                                            .and(entityRetriever.update(auditConfig, c -> c.setEnabled(bool)));
                                 });
                     }));
 
@@ -688,11 +692,10 @@ public class InteractionCommands{
                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                     }
 
-                                    guildConfig.timeZone(timeZone);
                                     return Mono.deferContextual(ctx -> messageService.text(env.event(),
                                             "command.settings.timezone.update", ctx.<Locale>get(KEY_TIMEZONE)))
                                             .contextWrite(ctx -> ctx.put(KEY_TIMEZONE, timeZone))
-                                            .and(entityRetriever.save(guildConfig));
+                                            .and(entityRetriever.update(guildConfig, c -> c.timeZone(timeZone)));
                                 });
 
                         Mono<Void> localeCommand = Mono.justOrEmpty(group.getOption("locale"))
@@ -711,11 +714,10 @@ public class InteractionCommands{
                                                 .contextWrite(ctx -> ctx.put(KEY_EPHEMERAL, true));
                                     }
 
-                                    guildConfig.locale(locale);
                                     return Mono.deferContextual(ctx -> messageService.text(env.event(), "command.settings.locale.update",
                                             ctx.<Locale>get(KEY_LOCALE).getDisplayName()))
                                             .contextWrite(ctx -> ctx.put(KEY_LOCALE, locale))
-                                            .and(entityRetriever.save(guildConfig));
+                                            .and(entityRetriever.update(guildConfig, c -> c.locale(locale)));
                                 });
 
                         return Mono.justOrEmpty(group.getOption("prefix"))
@@ -734,33 +736,36 @@ public class InteractionCommands{
                                                 .flatMap(subopt -> Mono.justOrEmpty(subopt.getValue()))
                                                 .map(ApplicationCommandInteractionOptionValue::asString)))
                                 .flatMap(function((choice, enums) -> Mono.defer(() -> {
-                                    List<String> flags = guildConfig.prefixes();
                                     if(choice.equals("clear")){
-                                        flags.clear();
-                                        return messageService.text(env.event(), "command.settings.prefix.clear");
+                                        return messageService.text(env.event(), "command.settings.prefix.clear")
+                                                .and(entityRetriever.update(guildConfig, c -> c.prefixes(List.of())));
                                     }
 
                                     boolean add = choice.equals("add");
 
                                     List<String> removed = new ArrayList<>(0);
                                     String[] text = enums.split("(\\s+)?,(\\s+)?");
-                                    for(String s : text){
-                                        if(add){
-                                            flags.add(s);
-                                        }else{
-                                            if(flags.remove(s)){
-                                                removed.add(s);
+                                    return entityRetriever.update(guildConfig, c -> {
+                                        List<String> flags = new ArrayList<>(c.prefixes());
+                                        for(String s : text){
+                                            if(add){
+                                                flags.add(s);
+                                            }else{
+                                                if(flags.remove(s)){
+                                                    removed.add(s);
+                                                }
                                             }
                                         }
-                                    }
-
-                                    if(add){
-                                        return messageService.text(env.event(), "command.settings.added",
-                                                String.join(", ", flags));
-                                    }
-                                    return messageService.text(env.event(), "command.settings.removed",
-                                            String.join(", ", removed));
-                                }).and(entityRetriever.save(guildConfig))));
+                                        c.prefixes(flags);
+                                    }).then(Mono.defer(() -> {
+                                        if(add){
+                                            return messageService.text(env.event(), "command.settings.added",
+                                                    String.join(", ", guildConfig.prefixes()));
+                                        }
+                                        return messageService.text(env.event(), "command.settings.removed",
+                                                String.join(", ", removed));
+                                    }));
+                                })));
 
                     }));
         }
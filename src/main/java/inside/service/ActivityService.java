@@ -0,0 +1,15 @@
+package inside.service;
+
+import discord4j.core.object.entity.*;
+import inside.data.entity.LocalMember;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// active user role
+public interface ActivityService{
+
+    Mono<Void> onMessage(Member member, LocalMember localMember, Instant timestamp);
+
+    Mono<Void> reconcile(Guild guild);
+}
@@ -46,4 +46,11 @@ public interface AdminService{
     Mono<Boolean> isOwner(Member member);
 
     Mono<Boolean> isAdmin(Member member);
+
+    // the highest role of the member has the manage guild permission
+    Mono<Boolean> isGuildManager(Member member);
+
+    void invalidatePermissions(Snowflake guildId);
+
+    void invalidatePermissions(Snowflake guildId, Snowflake userId);
 }
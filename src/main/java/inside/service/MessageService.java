@@ -66,9 +66,11 @@ public interface MessageService{
 
     // data
 
-    String encrypt(String text, Snowflake messageId, Snowflake channelId);
+    byte[] encrypt(String text, Snowflake messageId, Snowflake channelId);
 
-    String decrypt(String text, Snowflake messageId, Snowflake channelId);
+    String decrypt(byte[] content, Snowflake messageId, Snowflake channelId);
+
+    byte[] convertTextContent(String content);
 
     // caching
 
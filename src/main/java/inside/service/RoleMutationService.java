@@ -0,0 +1,14 @@
+package inside.service;
+
+import discord4j.common.util.Snowflake;
+import reactor.core.publisher.Mono;
+
+// queued member role changes, an add and a remove of the same role cancel each other out
+public interface RoleMutationService{
+
+    Mono<Void> addRole(Snowflake guildId, Snowflake userId, Snowflake roleId);
+
+    Mono<Void> removeRole(Snowflake guildId, Snowflake userId, Snowflake roleId);
+
+    int getQueueDepth();
+}
@@ -0,0 +1,190 @@
+package inside.service.impl;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.*;
+import discord4j.store.api.util.LongLongTuple2;
+import inside.data.entity.*;
+import inside.data.service.EntityRetriever;
+import inside.service.*;
+import inside.util.TimerWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.*;
+import reactor.util.*;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+// tracks members that wrote within the keep counting duration, roles change only on transitions
+@Service
+public class ActivityServiceImpl implements ActivityService{
+    private static final Logger log = Loggers.getLogger("inside.service.ActiveUserMonitor");
+
+    private final ConcurrentMap<LongLongTuple2, State> states = new ConcurrentHashMap<>();
+
+    // guild create is resent on every reconnect, members are requested once per process
+    private final Set<Long> reconciledGuilds = ConcurrentHashMap.newKeySet();
+
+    private final TimerWheel<LongLongTuple2> expirations = new TimerWheel<>(TimeUnit.MINUTES.toMillis(1), 1024, System.currentTimeMillis());
+
+    @Autowired
+    private EntityRetriever entityRetriever;
+
+    @Autowired
+    private DiscordService discordService;
+
+    @Override
+    public Mono<Void> onMessage(Member member, LocalMember localMember, Instant timestamp){
+        return entityRetriever.getActivityConfigById(member.getGuildId())
+                .filter(ActivityConfig::isEnabled)
+                .flatMap(config -> track(member, localMember, config, timestamp).thenReturn(config))
+                .switchIfEmpty(entityRetriever.incrementActivity(member, timestamp, false).then(Mono.empty()))
+                .then();
+    }
+
+    private Mono<Void> track(Member member, LocalMember localMember, ActivityConfig config, Instant timestamp){
+        LongLongTuple2 key = LongLongTuple2.of(member.getGuildId().asLong(), member.getId().asLong());
+        Snowflake roleId = config.roleId().orElse(null);
+        long keep = config.keepCountingDuration().toMillis();
+        long time = timestamp.toEpochMilli();
+
+        boolean reset;
+        boolean changed;
+        boolean active;
+        for(;;){
+            State state = states.computeIfAbsent(key, k -> {
+                Activity activity = localMember.activity();
+                Instant last = activity.lastSentMessage();
+                return new State(activity.messageCount(), last != null ? last.toEpochMilli() : 0,
+                        roleId != null && member.getRoleIds().contains(roleId));
+            });
+
+            synchronized(state){
+                if(state.removed){ // expired concurrently, take the next one
+                    continue;
+                }
+
+                // outdated count, the stored one is replaced as well
+                reset = state.lastSent + keep < time;
+                state.count = reset ? 1 : state.count + 1;
+                state.lastSent = Math.max(state.lastSent, time);
+                state.keep = keep;
+                state.roleId = roleId;
+
+                active = state.count >= config.messageBarrier();
+                changed = active != state.active;
+                state.active = active;
+                if(!state.scheduled){
+                    state.scheduled = true;
+                    expirations.schedule(key, state.lastSent + keep);
+                }
+            }
+            break;
+        }
+
+        Mono<Void> increment = entityRetriever.incrementActivity(member, timestamp, reset);
+        if(!changed || roleId == null){
+            return increment;
+        }
+        return increment.and(active ? member.addRole(roleId) : member.removeRole(roleId));
+    }
+
+    @Override
+    public Mono<Void> reconcile(Guild guild){
+        long guildId = guild.getId().asLong();
+        if(!reconciledGuilds.add(guildId)){
+            return Mono.empty();
+        }
+
+        return entityRetriever.getActivityConfigById(guild.getId())
+                .filter(config -> config.isEnabled() && config.roleId().isPresent())
+                .flatMap(config -> {
+                    Snowflake roleId = config.roleId().orElseThrow();
+                    long keep = config.keepCountingDuration().toMillis();
+                    Instant after = Instant.now().minusMillis(keep);
+
+                    return entityRetriever.getAllActiveLocalMembers(guild.getId(), config.messageBarrier(), after)
+                            .collect(Collectors.toMap(localMember -> localMember.userId().asLong(), localMember -> localMember))
+                            .flatMapMany(actives -> guild.requestMembers().flatMap(member -> {
+                                LocalMember localMember = actives.get(member.getId().asLong());
+                                boolean active = localMember != null;
+                                if(active){
+                                    Instant last = Objects.requireNonNull(localMember.activity().lastSentMessage());
+                                    LongLongTuple2 key = LongLongTuple2.of(guild.getId().asLong(), member.getId().asLong());
+                                    State state = new State(localMember.activity().messageCount(), last.toEpochMilli(), true);
+                                    state.keep = keep;
+                                    state.roleId = roleId;
+                                    state.scheduled = true;
+                                    if(states.putIfAbsent(key, state) == null){
+                                        expirations.schedule(key, state.lastSent + keep);
+                                    }
+                                }
+
+                                boolean hasRole = member.getRoleIds().contains(roleId);
+                                if(active == hasRole){
+                                    return Mono.empty();
+                                }
+                                return active ? member.addRole(roleId) : member.removeRole(roleId);
+                            }))
+                            .then();
+                })
+                .doOnError(t -> reconciledGuilds.remove(guildId));
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    private void expire(){
+        long now = System.currentTimeMillis();
+        List<LongLongTuple2> expired = expirations.advance(now);
+        if(expired.isEmpty()){
+            return;
+        }
+
+        Flux.fromIterable(expired)
+                .flatMap(key -> {
+                    State state = states.get(key);
+                    if(state == null){
+                        return Mono.empty();
+                    }
+
+                    Snowflake roleId;
+                    synchronized(state){
+                        long deadline = state.lastSent + state.keep;
+                        if(deadline > now){ // wrote again after scheduling
+                            expirations.schedule(key, deadline);
+                            return Mono.empty();
+                        }
+
+                        state.removed = true;
+                        states.remove(key, state);
+                        roleId = state.active ? state.roleId : null;
+                    }
+
+                    if(roleId == null){
+                        return Mono.empty();
+                    }
+                    return discordService.gateway().rest().getGuildService()
+                            .removeGuildMemberRole(key.getT1(), key.getT2(), roleId.asLong(), null)
+                            .onErrorResume(t -> Mono.fromRunnable(() -> log.error("Failed to remove active user role", t)));
+                })
+                .subscribe();
+    }
+
+    private static class State{
+        private int count;
+        private long lastSent;
+        private boolean active;
+        private long keep;
+        private Snowflake roleId;
+        private boolean scheduled;
+        private boolean removed;
+
+        private State(int count, long lastSent, boolean active){
+            this.count = count;
+            this.lastSent = lastSent;
+            this.active = active;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package inside.service.impl;
 
+import com.github.benmanes.caffeine.cache.*;
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.entity.*;
+import discord4j.core.util.OrderUtil;
 import discord4j.rest.util.Permission;
+import discord4j.store.api.util.LongLongTuple2;
 import inside.audit.*;
 import inside.data.entity.*;
 import inside.data.repository.AdminActionRepository;
-import inside.data.service.EntityRetriever;
+import inside.data.service.*;
 import inside.scheduler.job.*;
 import inside.service.AdminService;
 import inside.util.Try;
@@ -18,14 +21,19 @@ import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.*;
 import reactor.util.annotation.Nullable;
 
-import java.time.Instant;
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static inside.audit.Attribute.*;
 import static reactor.function.TupleUtils.function;
 
 @Service
 public class AdminServiceImpl implements AdminService{
+    private static final int OWNER = 1;
+    private static final int ADMINISTRATOR = 1 << 1;
+    private static final int ADMIN_ROLE = 1 << 2;
+    private static final int GUILD_MANAGER = 1 << 3;
 
     private final AdminActionRepository repository;
 
@@ -35,26 +43,40 @@ public class AdminServiceImpl implements AdminService{
 
     private final SchedulerFactoryBean schedulerFactoryBean;
 
+    private final PersistenceScheduler persistenceScheduler;
+
+    // (guild id, user id) -> permission flags, invalidated by role, member and guild updates
+    private final Cache<LongLongTuple2, Integer> permissions = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .maximumSize(10000)
+            .build();
+
+    private final AtomicLong permissionGeneration = new AtomicLong();
+
     public AdminServiceImpl(@Autowired AdminActionRepository repository,
                             @Autowired EntityRetriever entityRetriever,
                             @Autowired AuditService auditService,
-                            @Autowired SchedulerFactoryBean schedulerFactoryBean){
+                            @Autowired SchedulerFactoryBean schedulerFactoryBean,
+                            @Autowired PersistenceScheduler persistenceScheduler){
         this.repository = repository;
         this.entityRetriever = entityRetriever;
         this.auditService = auditService;
         this.schedulerFactoryBean = schedulerFactoryBean;
+        this.persistenceScheduler = persistenceScheduler;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Flux<AdminAction> get(AdminActionType type, Snowflake guildId, Snowflake targetId){
-        return Flux.defer(() -> Flux.fromIterable(repository.find(type, guildId.asLong(), targetId.asLong())));
+        return Flux.defer(() -> Flux.fromIterable(repository.find(type, guildId.asLong(), targetId.asLong())))
+                .subscribeOn(persistenceScheduler.get());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Flux<AdminAction> getAll(AdminActionType type){
-        return Flux.defer(() -> Flux.fromIterable(repository.findAll(type)));
+        return Flux.defer(() -> Flux.fromIterable(repository.findAll(type)))
+                .subscribeOn(persistenceScheduler.get());
     }
 
     @Override
@@ -70,7 +92,7 @@ public class AdminServiceImpl implements AdminService{
                         .reason(reason)
                         .timestamp(Instant.now())
                         .endTimestamp(endTimestamp)
-                        .build()))));
+                        .build())).subscribeOn(persistenceScheduler.get()).then()));
 
         Mono<Void> log = auditService.newBuilder(admin.getGuildId(), AuditActionType.MEMBER_MUTE)
                 .withUser(admin)
@@ -105,7 +127,8 @@ public class AdminServiceImpl implements AdminService{
                 .then();
 
         Mono<Void> remove = get(AdminActionType.mute, target.getGuildId(), target.getId()).next()
-                .flatMap(adminAction -> Mono.fromRunnable(() -> repository.delete(adminAction)))
+                .flatMap(adminAction -> Mono.fromRunnable(() -> repository.delete(adminAction))
+                        .subscribeOn(persistenceScheduler.get()))
                 .then();
 
         Mono<Void> log = auditService.newBuilder(target.getGuildId(), AuditActionType.MEMBER_UNMUTE)
@@ -124,7 +147,8 @@ public class AdminServiceImpl implements AdminService{
     @Transactional
     public Mono<Void> unban(Member target){
         Mono<Void> remove = get(AdminActionType.mute, target.getGuildId(), target.getId()).next()
-                .flatMap(adminAction -> Mono.fromRunnable(() -> repository.delete(adminAction)))
+                .flatMap(adminAction -> Mono.fromRunnable(() -> repository.delete(adminAction))
+                        .subscribeOn(persistenceScheduler.get()))
                 .then();
 
         Mono<Void> log = auditService.newBuilder(target.getGuildId(), AuditActionType.MEMBER_UNBAN)
@@ -150,7 +174,7 @@ public class AdminServiceImpl implements AdminService{
                 .switchIfEmpty(entityRetriever.createLocalMember(target));
 
         return Mono.zip(getOrCreateAdmin, getOrCreateTarget, getOrCreateAdminConfig)
-                .map(function((adminLocalMember, targetLocalMember, adminConfig) -> repository.save(AdminAction.builder()
+                .flatMap(function((adminLocalMember, targetLocalMember, adminConfig) -> Mono.fromCallable(() -> repository.save(AdminAction.builder()
                         .guildId(admin.getGuildId())
                         .type(AdminActionType.warn)
                         .admin(adminLocalMember)
@@ -160,7 +184,7 @@ public class AdminServiceImpl implements AdminService{
                         .endTimestamp(Optional.ofNullable(adminConfig.warnExpireDelay())
                                 .map(duration -> Instant.now().plus(duration))
                                 .orElse(null))
-                        .build())))
+                        .build())).subscribeOn(persistenceScheduler.get())))
                 .filter(action -> action.endTimestamp().isPresent())
                 .map(action -> Try.run(() -> schedulerFactoryBean.getScheduler().scheduleJob(UnwarnJob.createDetails(action), TriggerBuilder.newTrigger()
                         .startAt(action.endTimestamp()
@@ -176,14 +200,19 @@ public class AdminServiceImpl implements AdminService{
     public Mono<Void> unwarnAll(Snowflake guildId, Snowflake targetId){
         Objects.requireNonNull(guildId, "guildId");
         Objects.requireNonNull(targetId, "targetId");
-        return get(AdminActionType.warn, guildId, targetId).doOnNext(repository::delete).then(); // TODO: why spring doesn't execute 'delete from...'
+        return get(AdminActionType.warn, guildId, targetId)
+                .flatMap(action -> Mono.fromRunnable(() -> repository.delete(action))
+                        .subscribeOn(persistenceScheduler.get()))
+                .then(); // TODO: why spring doesn't execute 'delete from...'
     }
 
     @Override
     @Transactional
     public Mono<Void> unwarn(Snowflake guildId, Snowflake targetId, int index){
         return warnings(guildId, targetId).elementAt(index)
-                .flatMap(action -> Mono.fromRunnable(() -> repository.delete(action)));
+                .flatMap(action -> Mono.fromRunnable(() -> repository.delete(action))
+                        .subscribeOn(persistenceScheduler.get()))
+                .then();
     }
 
     @Override
@@ -194,21 +223,75 @@ public class AdminServiceImpl implements AdminService{
     @Override
     public Mono<Boolean> isOwner(Member member){
         Objects.requireNonNull(member, "member");
-        return member.getGuild().map(Guild::getOwnerId).map(ownerId -> member.getId().equals(ownerId));
+        return permissions(member).map(flags -> (flags & OWNER) != 0);
     }
 
     @Override
     public Mono<Boolean> isAdmin(Member member){
-        Mono<Set<Snowflake>> roles = entityRetriever.getAdminConfigById(member.getGuildId())
-                .map(AdminConfig::adminRoleIds);
+        Objects.requireNonNull(member, "member");
+        return permissions(member).map(flags -> (flags & (OWNER | ADMINISTRATOR | ADMIN_ROLE)) != 0);
+    }
+
+    @Override
+    public Mono<Boolean> isGuildManager(Member member){
+        Objects.requireNonNull(member, "member");
+        return permissions(member).map(flags -> (flags & GUILD_MANAGER) != 0);
+    }
 
-        Mono<Boolean> isPermissed = member.getRoles().map(Role::getId)
-                .filterWhen(id -> roles.map(list -> list.contains(id)))
-                .hasElements();
+    @Override
+    public void invalidatePermissions(Snowflake guildId){
+        Objects.requireNonNull(guildId, "guildId");
+        permissionGeneration.incrementAndGet();
+        permissions.asMap().keySet().removeIf(key -> key.getT1() == guildId.asLong());
+    }
 
-        Mono<Boolean> isAdmin = member.getRoles().map(Role::getPermissions)
-                .any(set -> set.contains(Permission.ADMINISTRATOR));
+    @Override
+    public void invalidatePermissions(Snowflake guildId, Snowflake userId){
+        Objects.requireNonNull(guildId, "guildId");
+        Objects.requireNonNull(userId, "userId");
+        permissionGeneration.incrementAndGet();
+        permissions.invalidate(LongLongTuple2.of(guildId.asLong(), userId.asLong()));
+    }
 
-        return Mono.zip(isOwner(member), isAdmin, isPermissed).map(function((owner, admin, permissed) -> owner || admin || permissed));
+    private Mono<Integer> permissions(Member member){
+        LongLongTuple2 key = LongLongTuple2.of(member.getGuildId().asLong(), member.getId().asLong());
+        Integer cached = permissions.getIfPresent(key);
+        if(cached != null){
+            return Mono.just(cached);
+        }
+
+        long generation = permissionGeneration.get();
+        Mono<Set<Snowflake>> adminRoleIds = entityRetriever.getAdminConfigById(member.getGuildId())
+                .map(AdminConfig::adminRoleIds)
+                .defaultIfEmpty(Set.of());
+
+        Mono<Boolean> isOwner = member.getGuild()
+                .map(guild -> guild.getOwnerId().equals(member.getId()))
+                .defaultIfEmpty(false);
+
+        return Mono.zip(adminRoleIds, isOwner, member.getRoles().collectList())
+                .map(function((adminRoles, owner, roles) -> {
+                    int flags = owner ? OWNER : 0;
+                    for(Role role : roles){
+                        if(role.getPermissions().contains(Permission.ADMINISTRATOR)){
+                            flags |= ADMINISTRATOR;
+                        }
+                        if(adminRoles.contains(role.getId())){
+                            flags |= ADMIN_ROLE;
+                        }
+                    }
+
+                    if(roles.stream().max(OrderUtil.ROLE_ORDER)
+                            .map(role -> role.getPermissions().contains(Permission.MANAGE_GUILD))
+                            .orElse(false)){
+                        flags |= GUILD_MANAGER;
+                    }
+
+                    // an invalidation during the fetch could have been lost otherwise
+                    if(permissionGeneration.get() == generation){
+                        permissions.put(key, flags);
+                    }
+                    return flags;
+                }));
     }
 }
@@ -9,9 +9,9 @@ import java.security.SecureRandom;
 class AesEncryptor{
     private static final String AES_CBC_ALGORITHM = "AES/CBC/PKCS5Padding";
 
+    private static final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(() -> CipherUtils.newCipher(AES_CBC_ALGORITHM));
+
     private final SecretKey secretKey;
-    private final Cipher encryptor;
-    private final Cipher decryptor;
     private final SecureRandom rand = new SecureRandom();
 
     public AesEncryptor(String password, CharSequence salt){
@@ -20,8 +20,6 @@ class AesEncryptor{
 
     public AesEncryptor(SecretKey secretKey){
         this.secretKey = new SecretKeySpec(secretKey.getEncoded(), "AES");
-        this.encryptor = CipherUtils.newCipher(AES_CBC_ALGORITHM);
-        this.decryptor = CipherUtils.newCipher(AES_CBC_ALGORITHM);
     }
 
     private byte[] generateKey(){
@@ -31,28 +29,28 @@ class AesEncryptor{
     }
 
     public byte[] encrypt(byte[] bytes){
-        synchronized(encryptor){
-            byte[] iv = generateKey();
-            CipherUtils.initCipher(encryptor, Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
-            byte[] encrypted = CipherUtils.doFinal(encryptor, bytes);
-            return concatenate(iv, encrypted);
-        }
+        return encrypt(bytes, 0);
     }
 
-    public byte[] decrypt(byte[] encryptedBytes){
-        synchronized(decryptor){
-            byte[] iv = iv(encryptedBytes);
-            CipherUtils.initCipher(decryptor, Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(iv));
-            return CipherUtils.doFinal(decryptor, encrypted(encryptedBytes, iv.length));
-        }
+    public byte[] encrypt(byte[] bytes, int prefixLength){
+        Cipher encryptor = cipher.get();
+        byte[] iv = generateKey();
+        CipherUtils.initCipher(encryptor, Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+        byte[] result = new byte[prefixLength + iv.length + encryptor.getOutputSize(bytes.length)];
+        System.arraycopy(iv, 0, result, prefixLength, iv.length);
+        CipherUtils.doFinal(encryptor, bytes, result, prefixLength + iv.length);
+        return result;
     }
 
-    private byte[] iv(byte[] encrypted){
-        return subArray(encrypted, 0, 16);
+    public byte[] decrypt(byte[] encryptedBytes){
+        return decrypt(encryptedBytes, 0);
     }
 
-    private byte[] encrypted(byte[] encryptedBytes, int ivLength){
-        return subArray(encryptedBytes, ivLength, encryptedBytes.length);
+    public byte[] decrypt(byte[] encryptedBytes, int offset){
+        Cipher decryptor = cipher.get();
+        CipherUtils.initCipher(decryptor, Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(encryptedBytes, offset, 16));
+        int start = offset + 16;
+        return CipherUtils.doFinal(decryptor, encryptedBytes, start, encryptedBytes.length - start);
     }
 
     public String encrypt(String text){
@@ -32,6 +32,22 @@ final class CipherUtils{
         }
     }
 
+    static Mac newMac(String algorithm){
+        try{
+            return Mac.getInstance(algorithm);
+        }catch(NoSuchAlgorithmException ex){
+            throw new IllegalArgumentException("Not a valid mac algorithm", ex);
+        }
+    }
+
+    static void initMac(Mac mac, SecretKey secretKey){
+        try{
+            mac.init(secretKey);
+        }catch(InvalidKeyException ex){
+            throw new IllegalArgumentException("Unable to initialize due to invalid secret key", ex);
+        }
+    }
+
     static void initCipher(Cipher cipher, int mode, SecretKey secretKey, @Nullable AlgorithmParameterSpec parameterSpec){
         try{
             if(parameterSpec != null){
@@ -46,9 +62,28 @@ final class CipherUtils{
         }
     }
 
+    static void doFinal(Cipher cipher, byte[] input, byte[] output, int outputOffset){
+        try{
+            int length = cipher.doFinal(input, 0, input.length, output, outputOffset);
+            if(outputOffset + length != output.length){
+                throw new IllegalStateException("Unexpected cipher output length");
+            }
+        }catch(ShortBufferException ex){
+            throw new IllegalStateException("Unable to invoke Cipher due to short output buffer", ex);
+        }catch(IllegalBlockSizeException ex){
+            throw new IllegalStateException("Unable to invoke Cipher due to illegal block size", ex);
+        }catch(BadPaddingException ex){
+            throw new IllegalStateException("Unable to invoke Cipher due to bad padding", ex);
+        }
+    }
+
     static byte[] doFinal(Cipher cipher, byte[] input){
+        return doFinal(cipher, input, 0, input.length);
+    }
+
+    static byte[] doFinal(Cipher cipher, byte[] input, int offset, int length){
         try{
-            return cipher.doFinal(input);
+            return cipher.doFinal(input, offset, length);
         }catch(IllegalBlockSizeException ex){
             throw new IllegalStateException("Unable to invoke Cipher due to illegal block size", ex);
         }catch(BadPaddingException ex){
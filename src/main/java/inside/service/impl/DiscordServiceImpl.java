@@ -1,39 +1,28 @@
 package inside.service.impl;
 
-import discord4j.common.LogUtil;
 import discord4j.common.util.Snowflake;
 import discord4j.core.*;
 import discord4j.core.event.ReactiveEventAdapter;
 import discord4j.core.object.entity.channel.TextChannel;
 import discord4j.core.shard.MemberRequestFilter;
 import discord4j.gateway.intent.*;
-import discord4j.rest.http.client.ClientException;
 import discord4j.rest.request.*;
 import discord4j.rest.response.ResponseFunction;
 import discord4j.rest.route.Routes;
-import discord4j.rest.util.RouteUtils;
 import inside.Settings;
-import inside.data.entity.Activity;
-import inside.data.service.EntityRetriever;
 import inside.interaction.*;
 import inside.service.DiscordService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.util.*;
 
 import javax.annotation.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static reactor.function.TupleUtils.*;
-
 @Service
 public class DiscordServiceImpl implements DiscordService{
 
-    private static final Logger log = Loggers.getLogger("inside.service.ActiveUserMonitor");
-
     private GatewayDiscordClient gateway;
 
     @Autowired(required = false)
@@ -47,9 +36,6 @@ public class DiscordServiceImpl implements DiscordService{
     @Autowired
     private Settings settings;
 
-    @Autowired
-    private EntityRetriever entityRetriever;
-
     @PostConstruct
     public void init(){
         String token = settings.getToken();
@@ -113,44 +99,4 @@ public class DiscordServiceImpl implements DiscordService{
     public Mono<TextChannel> getTextChannelById(Snowflake channelId){
         return gateway.getChannelById(channelId).ofType(TextChannel.class);
     }
-
-    // TODO: replace to lazy variant
-    @Scheduled(cron = "0 */2 * * * *")
-    private void activeUsers(){
-        entityRetriever.getAllLocalMembers()
-                .flatMap(localMember -> Mono.zip(Mono.just(localMember),
-                        gateway.getMemberById(localMember.guildId(), localMember.userId()),
-                        entityRetriever.getActivityConfigById(localMember.guildId())))
-                .filter(predicate((localMember, member, activeUserConfig) -> activeUserConfig.isEnabled()))
-                .flatMap(function((localMember, member, activeUserConfig) -> Mono.defer(() -> {
-                    Snowflake roleId = activeUserConfig.roleId().orElse(null);
-                    if(roleId == null){
-                        return Mono.empty();
-                    }
-
-                    Activity activity = localMember.activity();
-                    if(activeUserConfig.isActive(activity)){
-                        return member.addRole(roleId);
-                    }
-                    return member.removeRole(roleId);
-                }).and(Mono.defer(() -> {
-                    if(activeUserConfig.resetIfAfter(localMember.activity())){
-                        return entityRetriever.save(localMember);
-                    }
-                    return Mono.empty();
-                }))))
-                .onErrorResume(t -> t instanceof ClientException, t -> {
-                    ClientException c = (ClientException)t;
-                    DiscordWebRequest req = c.getRequest().getDiscordRequest();
-                    String major = RouteUtils.getMajorParam(req.getRoute().getUriTemplate(), req.getCompleteUri());
-                    if(major == null){ // the exception will always start with 'guilds/{guild.id}'
-                        return Mono.error(t);
-                    }
-
-                    return Mono.deferContextual(ctx -> Mono.fromRunnable(() -> log.error(LogUtil.format(ctx, "Missing access"))))
-                            .contextWrite(ctx1 -> ctx1.put(LogUtil.KEY_GUILD_ID, major))
-                            .then(Mono.empty());
-                })
-                .subscribe();
-    }
 }
@@ -0,0 +1,74 @@
+package inside.service.impl;
+
+import discord4j.common.util.Snowflake;
+import inside.util.codec.Utf8;
+
+import javax.crypto.*;
+import javax.crypto.spec.*;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+
+class HkdfMessageCipher implements MessageCipher{
+    static final byte VERSION = 2;
+    // rows written without a configured secret, readable after one is set
+    static final byte DEFAULT_KEY_VERSION = 3;
+
+    private static final String AES_GCM_ALGORITHM = "AES/GCM/NoPadding";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    private static final byte[] salt = Utf8.encode("inside-message-content");
+
+    private static final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(() -> CipherUtils.newCipher(AES_GCM_ALGORITHM));
+    private static final ThreadLocal<Mac> mac = ThreadLocal.withInitial(() -> CipherUtils.newMac(HMAC_ALGORITHM));
+
+    private final byte version;
+    private final SecretKey masterKey;
+    private final SecureRandom rand = new SecureRandom();
+
+    public HkdfMessageCipher(byte version, String secret){
+        this.version = version;
+        this.masterKey = new SecretKeySpec(CipherUtils.newSecretKey("PBKDF2WithHmacSHA256",
+                new PBEKeySpec(secret.toCharArray(), salt, 65536, 256)).getEncoded(), HMAC_ALGORITHM);
+    }
+
+    // single block hkdf-expand, the master key is already uniformly random
+    private SecretKey messageKey(Snowflake messageId, Snowflake channelId){
+        Mac hmac = mac.get();
+        CipherUtils.initMac(hmac, masterKey);
+        hmac.update(ByteBuffer.allocate(17)
+                .putLong(messageId.asLong())
+                .putLong(channelId.asLong())
+                .put((byte)1)
+                .flip());
+        return new SecretKeySpec(hmac.doFinal(), "AES");
+    }
+
+    @Override
+    public byte version(){
+        return version;
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data, int prefixLength, Snowflake messageId, Snowflake channelId){
+        byte[] nonce = new byte[NONCE_LENGTH];
+        rand.nextBytes(nonce);
+
+        Cipher encryptor = cipher.get();
+        CipherUtils.initCipher(encryptor, Cipher.ENCRYPT_MODE, messageKey(messageId, channelId), new GCMParameterSpec(TAG_LENGTH, nonce));
+        byte[] result = new byte[prefixLength + NONCE_LENGTH + encryptor.getOutputSize(data.length)];
+        System.arraycopy(nonce, 0, result, prefixLength, NONCE_LENGTH);
+        CipherUtils.doFinal(encryptor, data, result, prefixLength + NONCE_LENGTH);
+        return result;
+    }
+
+    @Override
+    public byte[] decrypt(byte[] data, int offset, Snowflake messageId, Snowflake channelId){
+        Cipher decryptor = cipher.get();
+        CipherUtils.initCipher(decryptor, Cipher.DECRYPT_MODE, messageKey(messageId, channelId),
+                new GCMParameterSpec(TAG_LENGTH, data, offset, NONCE_LENGTH));
+        int start = offset + NONCE_LENGTH;
+        return CipherUtils.doFinal(decryptor, data, start, data.length - start);
+    }
+}
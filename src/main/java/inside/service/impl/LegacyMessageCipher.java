@@ -0,0 +1,38 @@
+package inside.service.impl;
+
+import com.github.benmanes.caffeine.cache.*;
+import discord4j.common.util.Snowflake;
+import discord4j.store.api.util.LongLongTuple2;
+
+import java.time.Duration;
+
+// password is the message id and salt is the channel id, kept to read old rows
+class LegacyMessageCipher implements MessageCipher{
+    static final byte VERSION = 1;
+
+    // keyed by both ids, the channel id is part of the salt
+    private final Cache<LongLongTuple2, AesEncryptor> encryptors = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .build();
+
+    private AesEncryptor encryptor(Snowflake messageId, Snowflake channelId){
+        return encryptors.get(LongLongTuple2.of(messageId.asLong(), channelId.asLong()),
+                key -> new AesEncryptor(messageId.asString(), channelId.asString()));
+    }
+
+    @Override
+    public byte version(){
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data, int prefixLength, Snowflake messageId, Snowflake channelId){
+        return encryptor(messageId, channelId).encrypt(data, prefixLength);
+    }
+
+    @Override
+    public byte[] decrypt(byte[] data, int offset, Snowflake messageId, Snowflake channelId){
+        return encryptor(messageId, channelId).decrypt(data, offset);
+    }
+}
@@ -0,0 +1,13 @@
+package inside.service.impl;
+
+import discord4j.common.util.Snowflake;
+
+// encrypted arrays reserve a prefix of the given length for the caller
+interface MessageCipher{
+
+    byte version();
+
+    byte[] encrypt(byte[] data, int prefixLength, Snowflake messageId, Snowflake channelId);
+
+    byte[] decrypt(byte[] data, int offset, Snowflake messageId, Snowflake channelId);
+}
@@ -0,0 +1,168 @@
+package inside.service.impl;
+
+import discord4j.common.util.Snowflake;
+import inside.util.codec.*;
+import reactor.util.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.zip.*;
+
+// [version][flags][cipher payload], version selects the cipher
+class MessageContentCodec{
+    static final String TEXT_PREFIX = "$2$";
+
+    // message ids are public, without a secret the content is obfuscated rather than protected
+    private static final String DEFAULT_SECRET = "inside-default-message-secret";
+
+    private static final int HEADER_LENGTH = 2;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int COMPRESSION_THRESHOLD = 512;
+
+    private static final ThreadLocal<Deflater> deflater = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+    private static final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final MessageCipher[] ciphers = new MessageCipher[4];
+    private final MessageCipher writeCipher;
+
+    MessageContentCodec(@Nullable String secret){
+        register(new PlainMessageCipher());
+        register(new LegacyMessageCipher());
+        // the master keys are derived once, legacy rows derive a key per message and are only read
+        MessageCipher defaultKey = register(new HkdfMessageCipher(HkdfMessageCipher.DEFAULT_KEY_VERSION, DEFAULT_SECRET));
+        writeCipher = secret != null ? register(new HkdfMessageCipher(HkdfMessageCipher.VERSION, secret)) : defaultKey;
+    }
+
+    private MessageCipher register(MessageCipher cipher){
+        ciphers[cipher.version()] = cipher;
+        return cipher;
+    }
+
+    public byte[] encode(String text, boolean encrypt, Snowflake messageId, Snowflake channelId){
+        byte[] bytes = Utf8.encode(text);
+        byte flags = 0;
+        if(bytes.length >= COMPRESSION_THRESHOLD){
+            byte[] deflated = deflate(bytes);
+            if(deflated.length < bytes.length){
+                bytes = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        MessageCipher cipher = encrypt ? writeCipher : ciphers[PlainMessageCipher.VERSION];
+        byte[] result = cipher.encrypt(bytes, HEADER_LENGTH, messageId, channelId);
+        result[0] = cipher.version();
+        result[1] = flags;
+        return result;
+    }
+
+    public String decode(byte[] data, Snowflake messageId, Snowflake channelId){
+        if(data.length < HEADER_LENGTH || data[0] < 0 || data[0] >= ciphers.length){
+            throw new IllegalArgumentException("Unknown message content format");
+        }
+
+        MessageCipher cipher = ciphers[data[0]];
+        if(cipher == null){
+            throw new IllegalStateException("Message content is encrypted with a master key, but no secret is configured");
+        }
+
+        byte[] bytes = cipher.decrypt(data, HEADER_LENGTH, messageId, channelId);
+        if((data[1] & FLAG_DEFLATED) != 0){
+            bytes = inflate(bytes);
+        }
+        return Utf8.decode(bytes);
+    }
+
+    // rewrites the text column format without decrypting, channel ids are not stored.
+    // the format is detected per row, the encryption setting may have changed since the row was written
+    public byte[] fromText(String content){
+        byte version;
+        byte[] bytes;
+        if(content.startsWith(TEXT_PREFIX) && isBase64(content, TEXT_PREFIX.length())){
+            version = HkdfMessageCipher.VERSION;
+            bytes = Base64Coder.decode(content.substring(TEXT_PREFIX.length()));
+        }else if(isLegacyHex(content)){
+            version = LegacyMessageCipher.VERSION;
+            bytes = Hex.decode(content);
+        }else{
+            version = PlainMessageCipher.VERSION;
+            bytes = Utf8.encode(content);
+        }
+
+        byte[] result = new byte[HEADER_LENGTH + bytes.length];
+        result[0] = version;
+        System.arraycopy(bytes, 0, result, HEADER_LENGTH, bytes.length);
+        return result;
+    }
+
+    // lowercase hex of a 16 byte iv followed by whole aes blocks
+    private static boolean isLegacyHex(String content){
+        int length = content.length();
+        if(length < 64 || length % 32 != 0){
+            return false;
+        }
+        for(int i = 0; i < length; i++){
+            char c = content.charAt(i);
+            if((c < '0' || c > '9') && (c < 'a' || c > 'f')){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBase64(String content, int start){
+        int length = content.length() - start;
+        if(length == 0 || length % 4 != 0){
+            return false;
+        }
+        int end = content.length();
+        while(end > start && end > content.length() - 2 && content.charAt(end - 1) == '='){
+            end--;
+        }
+        for(int i = start; i < end; i++){
+            char c = content.charAt(i);
+            if((c < 'A' || c > 'Z') && (c < 'a' || c > 'z') && (c < '0' || c > '9') && c != '+' && c != '/'){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] deflate(byte[] bytes){
+        Deflater def = deflater.get();
+        try{
+            def.setInput(bytes);
+            def.finish();
+            byte[] buffer = new byte[bytes.length];
+            int length = 0;
+            while(!def.finished() && length < buffer.length){
+                length += def.deflate(buffer, length, buffer.length - length);
+            }
+            // incompressible input, caller keeps the original
+            return def.finished() ? Arrays.copyOf(buffer, length) : bytes;
+        }finally{
+            def.reset();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes){
+        Inflater inf = inflater.get();
+        try{
+            inf.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 3);
+            byte[] buffer = new byte[4096];
+            while(!inf.finished()){
+                int length = inf.inflate(buffer);
+                if(length == 0 && (inf.needsInput() || inf.needsDictionary())){
+                    throw new IllegalArgumentException("Truncated message content");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        }catch(DataFormatException ex){
+            throw new IllegalArgumentException("Malformed message content", ex);
+        }finally{
+            inf.reset();
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.*;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.util.*;
 import reactor.util.context.ContextView;
 
 import java.util.*;
@@ -26,6 +27,7 @@ import static inside.util.ContextUtil.*;
 
 @Service
 public class MessageServiceImpl implements MessageService{
+    private static final Logger log = Loggers.getLogger(MessageServiceImpl.class);
 
     private static final Map<String, Locale> locales;
 
@@ -60,6 +62,8 @@ public class MessageServiceImpl implements MessageService{
 
     private final Settings settings;
 
+    private final MessageContentCodec contentCodec;
+
     private final Cache<Snowflake, Boolean> waitingMessage = Caffeine.newBuilder()
             .expireAfterWrite(15, TimeUnit.SECONDS)
             .build();
@@ -68,6 +72,12 @@ public class MessageServiceImpl implements MessageService{
                               @Autowired Settings settings){
         this.context = context;
         this.settings = settings;
+
+        String secret = settings.getDiscord().getEncryptionSecret();
+        if(Strings.isEmpty(secret) && settings.getDiscord().isEncryptMessages()){
+            log.warn("No encryption secret is configured, message content is encrypted with the built-in key");
+        }
+        this.contentCodec = new MessageContentCodec(Strings.isEmpty(secret) ? null : secret);
     }
 
     @Override
@@ -271,24 +281,17 @@ public class MessageServiceImpl implements MessageService{
     }
 
     @Override
-    public String encrypt(String text, Snowflake messageId, Snowflake channelId){
-        if(settings.getDiscord().isEncryptMessages()){
-            String password = messageId.asString();
-            String salt = channelId.asString();
-            AesEncryptor coder = new AesEncryptor(password, salt);
-            return coder.encrypt(text);
-        }
-        return text;
+    public byte[] encrypt(String text, Snowflake messageId, Snowflake channelId){
+        return contentCodec.encode(text, settings.getDiscord().isEncryptMessages(), messageId, channelId);
     }
 
     @Override
-    public String decrypt(String text, Snowflake messageId, Snowflake channelId){
-        if(settings.getDiscord().isEncryptMessages()){
-            String password = messageId.asString();
-            String salt = channelId.asString();
-            AesEncryptor coder = new AesEncryptor(password, salt);
-            return coder.decrypt(text);
-        }
-        return text;
+    public String decrypt(byte[] content, Snowflake messageId, Snowflake channelId){
+        return contentCodec.decode(content, messageId, channelId);
+    }
+
+    @Override
+    public byte[] convertTextContent(String content){
+        return contentCodec.fromText(content);
     }
 }
@@ -0,0 +1,26 @@
+package inside.service.impl;
+
+import discord4j.common.util.Snowflake;
+
+import java.util.Arrays;
+
+class PlainMessageCipher implements MessageCipher{
+    static final byte VERSION = 0;
+
+    @Override
+    public byte version(){
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data, int prefixLength, Snowflake messageId, Snowflake channelId){
+        byte[] result = new byte[prefixLength + data.length];
+        System.arraycopy(data, 0, result, prefixLength, data.length);
+        return result;
+    }
+
+    @Override
+    public byte[] decrypt(byte[] data, int offset, Snowflake messageId, Snowflake channelId){
+        return Arrays.copyOfRange(data, offset, data.length);
+    }
+}
@@ -0,0 +1,155 @@
+package inside.service.impl;
+
+import discord4j.common.util.Snowflake;
+import discord4j.rest.service.GuildService;
+import discord4j.store.api.util.LongLongTuple2;
+import inside.Settings;
+import inside.service.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.*;
+import reactor.util.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+@Service
+public class RoleMutationServiceImpl implements RoleMutationService{
+    private static final Logger log = Loggers.getLogger(RoleMutationServiceImpl.class);
+
+    private final ConcurrentMap<Long, GuildQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder merged = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    @Autowired
+    private DiscordService discordService;
+
+    @Autowired
+    private Settings settings;
+
+    @Override
+    public Mono<Void> addRole(Snowflake guildId, Snowflake userId, Snowflake roleId){
+        return Mono.fromRunnable(() -> enqueue(guildId.asLong(), userId.asLong(), roleId.asLong(), true));
+    }
+
+    @Override
+    public Mono<Void> removeRole(Snowflake guildId, Snowflake userId, Snowflake roleId){
+        return Mono.fromRunnable(() -> enqueue(guildId.asLong(), userId.asLong(), roleId.asLong(), false));
+    }
+
+    @Override
+    public int getQueueDepth(){
+        return depth.get();
+    }
+
+    private void enqueue(long guildId, long userId, long roleId, boolean add){
+        GuildQueue queue = queues.computeIfAbsent(guildId, k -> new GuildQueue());
+        LongLongTuple2 key = LongLongTuple2.of(userId, roleId);
+        synchronized(queue){
+            Boolean pending = queue.pending.get(key);
+            if(pending != null){
+                if(pending != add){ // the opposite change was not sent yet
+                    queue.pending.remove(key);
+                    depth.decrementAndGet();
+                }
+                merged.increment();
+                return;
+            }
+
+            if(queue.pending.size() >= settings.getDiscord().getRoleMutationQueueCapacity()){
+                dropped.increment();
+                return;
+            }
+
+            queue.pending.put(key, add);
+            depth.incrementAndGet();
+            if(queue.draining){
+                return;
+            }
+            queue.draining = true;
+        }
+
+        Mono<Boolean> next = Mono.defer(() -> {
+            Mutation mutation = queue.poll();
+            if(mutation == null){
+                return Mono.just(false);
+            }
+            return execute(guildId, mutation)
+                    .then(Mono.delay(settings.getDiscord().getRoleMutationInterval()))
+                    .thenReturn(true);
+        });
+
+        // poll() ends draining on completion, a failed or cancelled chain must end it here
+        // or no later enqueue would start the guild's queue again
+        Mono.delay(settings.getDiscord().getRoleMutationDelay())
+                .thenMany(next.repeat())
+                .takeUntil(more -> !more)
+                .doFinally(signal -> {
+                    if(signal != SignalType.ON_COMPLETE){
+                        synchronized(queue){
+                            queue.draining = false;
+                        }
+                    }
+                })
+                .subscribe(null, t -> log.error("Role change queue of guild {} failed", guildId, t));
+    }
+
+    private Mono<Void> execute(long guildId, Mutation mutation){
+        GuildService guildService = discordService.gateway().rest().getGuildService();
+        Mono<Void> request = mutation.add()
+                ? guildService.addGuildMemberRole(guildId, mutation.userId(), mutation.roleId(), null)
+                : guildService.removeGuildMemberRole(guildId, mutation.userId(), mutation.roleId(), null);
+        return request.doOnSuccess(v -> executed.increment())
+                .onErrorResume(t -> Mono.fromRunnable(() -> {
+                    failed.increment();
+                    log.error("Failed to change member role", t);
+                }));
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    private void logMetrics(){
+        long executedCount = executed.sumThenReset();
+        long mergedCount = merged.sumThenReset();
+        long droppedCount = dropped.sumThenReset();
+        long failedCount = failed.sumThenReset();
+        if(droppedCount > 0){
+            log.warn("Dropped {} role changes, queue capacity exceeded", droppedCount);
+        }
+        if(log.isDebugEnabled()){
+            log.debug("Queue depth: {}, executed: {}, merged: {}, dropped: {}, failed: {}",
+                    depth.get(), executedCount, mergedCount, droppedCount, failedCount);
+        }
+    }
+
+    private record Mutation(long userId, long roleId, boolean add){}
+
+    private class GuildQueue{
+        // (user id, role id) -> add, in arrival order
+        private final Map<LongLongTuple2, Boolean> pending = new LinkedHashMap<>();
+        private boolean draining;
+
+        // the next change or null when the queue is drained
+        private synchronized Mutation poll(){
+            Iterator<Map.Entry<LongLongTuple2, Boolean>> iterator = pending.entrySet().iterator();
+            if(!iterator.hasNext()){
+                draining = false;
+                return null;
+            }
+
+            Map.Entry<LongLongTuple2, Boolean> entry = iterator.next();
+            iterator.remove();
+            depth.decrementAndGet();
+            return new Mutation(entry.getKey().getT1(), entry.getKey().getT2(), entry.getValue());
+        }
+    }
+}
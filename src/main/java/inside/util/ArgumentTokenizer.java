@@ -0,0 +1,99 @@
+package inside.util;
+
+import java.util.Objects;
+
+// single pass over a range of the message, tokens are offsets into the original text
+// "quoted text" is one token and a backslash escapes the next character
+public final class ArgumentTokenizer{
+    private final CharSequence text;
+    private final int end;
+
+    private int position;
+    private int tokenStart;
+    private int tokenEnd;
+    private boolean escaped;
+
+    public ArgumentTokenizer(CharSequence text, int start, int end){
+        this.text = Objects.requireNonNull(text, "text");
+        Objects.checkFromToIndex(start, end, text.length());
+        this.position = start;
+        this.end = end;
+    }
+
+    public boolean hasNext(){
+        while(position < end && Character.isWhitespace(text.charAt(position))){
+            position++;
+        }
+        return position < end;
+    }
+
+    public boolean next(){
+        if(!hasNext()){
+            return false;
+        }
+
+        tokenStart = position;
+        boolean quoted = text.charAt(position) == '"';
+        escaped = quoted;
+        if(quoted){
+            position++;
+        }
+
+        while(position < end){
+            char c = text.charAt(position);
+            if(c == '\\' && position + 1 < end){
+                escaped = true;
+                position += 2;
+                continue;
+            }
+
+            if(quoted ? c == '"' : Character.isWhitespace(c)){
+                if(quoted){
+                    position++;
+                }
+                break;
+            }
+            position++;
+        }
+        tokenEnd = position;
+        return true;
+    }
+
+    // start of the text after the last token
+    public int position(){
+        return position;
+    }
+
+    public int end(){
+        return end;
+    }
+
+    public int tokenStart(){
+        return tokenStart;
+    }
+
+    public int tokenEnd(){
+        return tokenEnd;
+    }
+
+    // whether the token has quotes or escapes to remove
+    public boolean isEscaped(){
+        return escaped;
+    }
+
+    public static String unquote(CharSequence text, int start, int end){
+        StringBuilder builder = new StringBuilder(end - start);
+        boolean quoted = start < end && text.charAt(start) == '"';
+        for(int i = quoted ? start + 1 : start; i < end; i++){
+            char c = text.charAt(i);
+            if(c == '\\' && i + 1 < end){
+                builder.append(text.charAt(++i));
+            }else if(c == '"' && quoted){
+                break;
+            }else{
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
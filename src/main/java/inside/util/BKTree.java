@@ -0,0 +1,127 @@
+package inside.util;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.*;
+
+// burkhard-keller tree over the levenshtein distance
+// a lookup visits only the subtrees that can hold a closer value than the best one found
+public final class BKTree{
+    @Nullable
+    private Node root;
+
+    private int size;
+
+    private int maxLength;
+
+    public BKTree(){
+    }
+
+    public BKTree(Collection<? extends CharSequence> values){
+        values.forEach(this::add);
+    }
+
+    public void add(CharSequence value){
+        Objects.requireNonNull(value, "value");
+        String s = value.toString();
+        maxLength = Math.max(maxLength, s.length());
+        if(root == null){
+            root = new Node(s, size++);
+            return;
+        }
+
+        Node node = root;
+        while(true){
+            int distance = Strings.levenshtein(node.value, s);
+            if(distance == 0){ // already present
+                return;
+            }
+
+            Node child = node.child(distance);
+            if(child == null){
+                node.child(distance, new Node(s, size++));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public int size(){
+        return size;
+    }
+
+    // the closest value, the first added one among equally close values
+    @Nullable
+    public String closest(CharSequence query){
+        return closest(query, Math.max(maxLength, query.length()));
+    }
+
+    @Nullable
+    public String closest(CharSequence query, int maxDistance){
+        Objects.requireNonNull(query, "query");
+        if(root == null){
+            return null;
+        }
+
+        Search search = new Search(query, maxDistance);
+        search.visit(root);
+        return search.best != null ? search.best.value : null;
+    }
+
+    private static class Node{
+        private final String value;
+        private final int ordinal;
+
+        private Node[] children = {};
+
+        private Node(String value, int ordinal){
+            this.value = value;
+            this.ordinal = ordinal;
+        }
+
+        @Nullable
+        private Node child(int distance){
+            return distance < children.length ? children[distance] : null;
+        }
+
+        private void child(int distance, Node node){
+            if(distance >= children.length){
+                children = Arrays.copyOf(children, distance + 1);
+            }
+            children[distance] = node;
+        }
+    }
+
+    private static class Search{
+        private final CharSequence query;
+
+        @Nullable
+        private Node best;
+        private int bestDistance;
+
+        private Search(CharSequence query, int maxDistance){
+            this.query = query;
+            this.bestDistance = maxDistance;
+        }
+
+        private void visit(Node node){
+            // children are at most children.length - 1 away from this node,
+            // beyond this limit none of them can be within the best distance
+            int distance = Strings.levenshtein(node.value, query, bestDistance + node.children.length);
+            if(distance < bestDistance || distance == bestDistance && (best == null || node.ordinal < best.ordinal)){
+                best = node;
+                bestDistance = distance;
+            }
+
+            int from = Math.max(1, distance - bestDistance);
+            int to = Math.min(node.children.length - 1, distance + bestDistance);
+            for(int i = from; i <= to; i++){
+                Node child = node.children[i];
+                if(child != null){
+                    visit(child);
+                    to = Math.min(to, distance + bestDistance);
+                }
+            }
+        }
+    }
+}
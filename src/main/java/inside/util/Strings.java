@@ -38,22 +38,42 @@ public abstract class Strings{
     }
 
     public static int levenshtein(CharSequence x, CharSequence y){
-        int[][] dp = new int[x.length() + 1][y.length() + 1];
-
-        for(int i = 0; i <= x.length(); i++){
-            for(int j = 0; j <= y.length(); j++){
-                if(i == 0){
-                    dp[i][j] = j;
-                }else if(j == 0){
-                    dp[i][j] = i;
-                }else{
-                    dp[i][j] = Math.min(Math.min(dp[i - 1][j - 1] + (x.charAt(i - 1) == y.charAt(j - 1) ? 0 : 1),
-                            dp[i - 1][j] + 1),
-                            dp[i][j - 1] + 1);
-                }
+        return levenshtein(x, y, Math.max(x.length(), y.length()));
+    }
+
+    // max + 1 when the distance is greater than max, stops as soon as a row exceeds it
+    public static int levenshtein(CharSequence x, CharSequence y, int max){
+        int n = x.length(), m = y.length();
+        if(Math.abs(n - m) > max){
+            return max + 1;
+        }
+
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for(int j = 0; j <= m; j++){
+            prev[j] = j;
+        }
+
+        for(int i = 1; i <= n; i++){
+            curr[0] = i;
+            int rowMin = i;
+            char c = x.charAt(i - 1);
+            for(int j = 1; j <= m; j++){
+                curr[j] = Math.min(Math.min(prev[j - 1] + (c == y.charAt(j - 1) ? 0 : 1),
+                        prev[j] + 1),
+                        curr[j - 1] + 1);
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+
+            if(rowMin > max){
+                return max + 1;
             }
+
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
         }
 
-        return dp[x.length()][y.length()];
+        return Math.min(prev[m], max + 1);
     }
 }
@@ -0,0 +1,59 @@
+package inside.util;
+
+import java.util.*;
+
+// hashed timer wheel, values far in the future stay in their slot until the matching round
+public class TimerWheel<T>{
+    private final long tickMillis;
+    private final List<List<Entry<T>>> slots;
+    private final int mask;
+    private long lastTick;
+
+    public TimerWheel(long tickMillis, int slotCount, long startMillis){
+        Preconditions.requireArgument(Integer.bitCount(slotCount) == 1, "slotCount must be a power of two");
+        this.tickMillis = tickMillis;
+        this.mask = slotCount - 1;
+        this.lastTick = startMillis / tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for(int i = 0; i < slotCount; i++){
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    public synchronized void schedule(T value, long deadlineMillis){
+        long tick = Math.max(deadlineMillis / tickMillis, lastTick + 1);
+        slots.get((int)(tick & mask)).add(new Entry<>(value, deadlineMillis));
+    }
+
+    public synchronized List<T> advance(long nowMillis){
+        long nowTick = nowMillis / tickMillis;
+        if(nowTick <= lastTick){
+            return List.of();
+        }
+
+        List<T> expired = new ArrayList<>();
+        // after a long pause every slot is visited once
+        long from = Math.max(lastTick + 1, nowTick - mask);
+        for(long tick = from; tick <= nowTick; tick++){
+            slots.get((int)(tick & mask)).removeIf(entry -> {
+                if(entry.deadline <= nowMillis){
+                    expired.add(entry.value);
+                    return true;
+                }
+                return false;
+            });
+        }
+        lastTick = nowTick;
+        return expired;
+    }
+
+    private static class Entry<T>{
+        private final T value;
+        private final long deadline;
+
+        private Entry(T value, long deadline){
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+begin;
+
+alter table audit_action
+    add column if not exists attribute_data bytea;
+
+-- json attributes are no longer written, old rows expire with the history keep
+alter table audit_action
+    alter column attributes drop not null;
+
+commit;
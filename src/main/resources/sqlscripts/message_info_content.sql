@@ -0,0 +1,9 @@
+begin;
+
+alter table message_info
+    add column if not exists content_data bytea;
+
+alter table message_info
+    alter column content drop not null;
+
+commit;
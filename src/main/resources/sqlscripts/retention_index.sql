@@ -0,0 +1,9 @@
+begin;
+
+create index if not exists idx_msgnf_ts
+    on message_info(timestamp);
+
+create index if not exists idx_adtctn_ts
+    on audit_action(timestamp);
+
+commit;
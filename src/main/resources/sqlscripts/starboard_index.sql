@@ -0,0 +1,6 @@
+begin;
+
+alter table starboard_config
+    add column if not exists indexed_channel_id varchar(255);
+
+commit;
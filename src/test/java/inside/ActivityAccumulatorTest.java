@@ -0,0 +1,63 @@
+package inside;
+
+import inside.data.service.ActivityAccumulator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActivityAccumulatorTest{
+
+    private static int find(ActivityAccumulator.Snapshot snapshot, long guildId, long userId){
+        for(int i = 0; i < snapshot.size(); i++){
+            if(snapshot.guildId(i) == guildId && snapshot.userId(i) == userId){
+                return i;
+            }
+        }
+        return fail("no entry for " + guildId + "/" + userId);
+    }
+
+    @Test
+    public void restoreMergesNewerIncrements(){
+        ActivityAccumulator accumulator = new ActivityAccumulator();
+        accumulator.increment(1, 1, 100, true);
+        accumulator.increment(1, 1, 200, false);
+        accumulator.increment(1, 2, 100, false);
+        accumulator.increment(1, 3, 300, false);
+        ActivityAccumulator.Snapshot failed = accumulator.drain();
+        assertEquals(0, accumulator.size());
+
+        accumulator.increment(1, 1, 150, false); // added to the restored count
+        accumulator.increment(1, 2, 400, true); // replaces the restored count
+        accumulator.restore(failed);
+
+        ActivityAccumulator.Snapshot snapshot = accumulator.drain();
+        assertEquals(3, snapshot.size());
+
+        int i = find(snapshot, 1, 1);
+        assertEquals(3, snapshot.count(i));
+        assertTrue(snapshot.reset(i));
+        assertEquals(200, snapshot.lastSent(i));
+
+        i = find(snapshot, 1, 2);
+        assertEquals(1, snapshot.count(i));
+        assertTrue(snapshot.reset(i));
+        assertEquals(400, snapshot.lastSent(i));
+
+        i = find(snapshot, 1, 3);
+        assertEquals(1, snapshot.count(i));
+        assertFalse(snapshot.reset(i));
+        assertEquals(300, snapshot.lastSent(i));
+    }
+
+    @Test
+    public void restoreGrows(){
+        ActivityAccumulator accumulator = new ActivityAccumulator();
+        for(int i = 0; i < 1000; i++){
+            accumulator.increment(1, i, i, false);
+        }
+        ActivityAccumulator.Snapshot failed = accumulator.drain();
+        accumulator.restore(failed);
+        assertEquals(1000, accumulator.size());
+        assertEquals(1000, accumulator.drain().size());
+    }
+}
@@ -0,0 +1,140 @@
+package inside;
+
+import inside.command.ArgumentParser;
+import inside.command.model.*;
+import inside.util.ArgumentTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArgumentTokenizerTest{
+
+    private static List<String> tokens(String text){
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(text, 0, text.length());
+        List<String> tokens = new ArrayList<>();
+        while(tokenizer.next()){
+            tokens.add(tokenizer.isEscaped()
+                    ? ArgumentTokenizer.unquote(text, tokenizer.tokenStart(), tokenizer.tokenEnd())
+                    : text.substring(tokenizer.tokenStart(), tokenizer.tokenEnd()));
+        }
+        return tokens;
+    }
+
+    private static ArgumentParser.Result parse(String text, List<String> values, CommandParam... params){
+        List<CommandOption> result = new ArrayList<>();
+        ArgumentParser.Result parsed = ArgumentParser.parse(params, text, 0, text.length(), result);
+        for(CommandOption option : result){
+            values.add(option.getValue().map(OptionValue::asString).orElse(null));
+        }
+        return parsed;
+    }
+
+    private static CommandParam required(String name){
+        return new CommandParam(name, false, false);
+    }
+
+    private static CommandParam optional(String name){
+        return new CommandParam(name, true, false);
+    }
+
+    @Test
+    public void plain(){
+        assertEquals(List.of(), tokens(""));
+        assertEquals(List.of(), tokens("   "));
+        assertEquals(List.of("a"), tokens("a"));
+        assertEquals(List.of("a", "b", "c"), tokens("a b\tc"));
+        assertEquals(List.of("a", "b"), tokens("  a   b"));
+    }
+
+    @Test
+    public void quoted(){
+        assertEquals(List.of("a b", "c"), tokens("\"a b\" c"));
+        assertEquals(List.of(""), tokens("\"\""));
+        assertEquals(List.of("x", " y ", "z"), tokens("x \" y \" z"));
+    }
+
+    @Test
+    public void unterminatedQuote(){
+        assertEquals(List.of("a b"), tokens("\"a b"));
+        assertEquals(List.of("x", "a b  "), tokens("x \"a b  "));
+        assertEquals(List.of(""), tokens("\""));
+    }
+
+    @Test
+    public void escaped(){
+        assertEquals(List.of("a b", "c"), tokens("a\\ b c"));
+        assertEquals(List.of("a \"b\""), tokens("\"a \\\"b\\\"\""));
+        assertEquals(List.of("\\"), tokens("\\\\"));
+        assertEquals(List.of("a\\"), tokens("a\\")); // a trailing backslash is kept
+    }
+
+    @Test
+    public void trailingWhitespace(){
+        String text = "a b  \t ";
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(text, 0, text.length());
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.next());
+        assertEquals(2, tokenizer.tokenStart());
+        assertEquals(3, tokenizer.tokenEnd());
+        assertFalse(tokenizer.hasNext());
+        assertFalse(tokenizer.next());
+        assertEquals(text.length(), tokenizer.position());
+    }
+
+    @Test
+    public void quoteAdjacency(){
+        // the closing quote ends the token, the rest is the next one
+        assertEquals(List.of("a", "b"), tokens("\"a\"b"));
+        assertEquals(List.of("a\"b\""), tokens("a\"b\""));
+    }
+
+    @Test
+    public void range(){
+        String text = "cmd x \"y z\" w";
+        ArgumentTokenizer tokenizer = new ArgumentTokenizer(text, 4, 11);
+        assertTrue(tokenizer.next());
+        assertEquals("x", text.substring(tokenizer.tokenStart(), tokenizer.tokenEnd()));
+        assertTrue(tokenizer.next());
+        assertEquals("y z", ArgumentTokenizer.unquote(text, tokenizer.tokenStart(), tokenizer.tokenEnd()));
+        assertFalse(tokenizer.hasNext());
+    }
+
+    @Test
+    public void fewArguments(){
+        List<String> values = new ArrayList<>();
+        assertEquals(ArgumentParser.Result.FEW_ARGUMENTS, parse("x", values, required("a"), required("b")));
+        assertEquals(ArgumentParser.Result.MISSING_ARGUMENTS, parse("", values, required("a"), required("b")));
+        assertEquals(ArgumentParser.Result.MISSING_ARGUMENTS, parse("   ", values, required("a")));
+        assertEquals(ArgumentParser.Result.OK, parse("", values, optional("a")));
+        assertEquals(ArgumentParser.Result.OK, parse("", values));
+
+        values.clear();
+        assertEquals(ArgumentParser.Result.OK, parse("x", values, required("a"), optional("b")));
+        assertEquals(List.of("x"), values);
+
+        values.clear();
+        assertEquals(ArgumentParser.Result.OK, parse("x \"y z\"", values, required("a"), required("b")));
+        assertEquals(List.of("x", "y z"), values);
+    }
+
+    @Test
+    public void manyArguments(){
+        List<String> values = new ArrayList<>();
+        assertEquals(ArgumentParser.Result.MANY_ARGUMENTS, parse("x", values));
+        assertEquals(ArgumentParser.Result.MANY_ARGUMENTS, parse("x y z", values, required("a"), required("b")));
+        assertEquals(ArgumentParser.Result.MANY_ARGUMENTS, parse("x \"y z\" w", values, required("a"), optional("b")));
+
+        values.clear();
+        assertEquals(ArgumentParser.Result.OK, parse("x y  ", values, required("a"), optional("b")));
+        assertEquals(List.of("x", "y"), values);
+    }
+
+    @Test
+    public void variadic(){
+        List<String> values = new ArrayList<>();
+        assertEquals(ArgumentParser.Result.OK, parse("x  \"y\" z", values, required("a"), new CommandParam("rest", false, true)));
+        assertEquals(List.of("x", "\"y\" z"), values);
+    }
+}
@@ -0,0 +1,57 @@
+package inside;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.reaction.ReactionEmoji;
+import inside.audit.*;
+import inside.data.entity.base.NamedReference;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.*;
+
+import static inside.audit.Attribute.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttributeMapTest{
+
+    @Test
+    public void roundTrip(){
+        AttributeMap map = new AttributeMap();
+        map.put(OLD_CONTENT, "old контент");
+        map.put(DELAY, Instant.ofEpochSecond(1600000000L, 123));
+        map.put(MESSAGE_ID, Snowflake.of(851733498617053235L));
+        map.put(COUNT, 42L);
+        map.put(REACTION_EMOJI, ReactionEmoji.custom(Snowflake.of(1L), "name", true));
+        map.put(ROLE_IDS, new ArrayList<>(List.of(Snowflake.of(2L), Snowflake.of(3L))));
+        map.put(OLD_CHANNEL, new NamedReference(Snowflake.of(4L), "general"));
+
+        AttributeMap read = AttributeMap.fromBytes(map.toBytes());
+        assertEquals(map, read);
+        assertEquals(ReactionEmoji.unicode("👍"), AttributeMap.fromBytes(with(REACTION_EMOJI,
+                ReactionEmoji.unicode("👍")).toBytes()).get(REACTION_EMOJI));
+        assertNull(read.get(NEW_CONTENT));
+    }
+
+    @Test
+    public void copies(){
+        AttributeMap map = new AttributeMap();
+        assertTrue(map.isEmpty());
+
+        List<Snowflake> roleIds = new ArrayList<>(List.of(Snowflake.of(2L)));
+        map.put(ROLE_IDS, roleIds);
+        roleIds.add(Snowflake.of(3L));
+        assertEquals(1, map.get(ROLE_IDS).size());
+
+        AttributeMap copy = map.copy();
+        assertEquals(map, copy);
+        copy.put(REASON, "reason");
+        assertNotEquals(map, copy);
+        assertNull(map.get(REASON));
+    }
+
+    private static <T> AttributeMap with(Attribute<T> key, T value){
+        AttributeMap map = new AttributeMap();
+        map.put(key, value);
+        return map;
+    }
+}
@@ -0,0 +1,51 @@
+package inside;
+
+import inside.util.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuzzyMatchTest{
+
+    @Test
+    public void levenshtein(){
+        assertEquals(0, Strings.levenshtein("", ""));
+        assertEquals(3, Strings.levenshtein("kitten", "sitting"));
+        assertEquals(4, Strings.levenshtein("", "help"));
+        assertEquals(1, Strings.levenshtein("help", "hlp"));
+        assertEquals(2, Strings.levenshtein("kitten", "sitting", 1));
+        assertEquals(3, Strings.levenshtein("kitten", "sitting", 3));
+        assertEquals(1, Strings.levenshtein("a", "abcdef", 0));
+    }
+
+    @Test
+    public void closest(){
+        List<String> words = List.of("help", "ping", "poll", "qpoll", "translate", "tr", "settings", "prefix", "avatar", "math");
+        BKTree tree = new BKTree(words);
+        assertEquals(words.size(), tree.size());
+
+        Random random = new Random(42);
+        for(int i = 0; i < 1000; i++){
+            String query = randomWord(random);
+            String expected = words.stream()
+                    .min(Comparator.comparingInt(s -> Strings.levenshtein(s, query)))
+                    .orElseThrow();
+            assertEquals(expected, tree.closest(query), query);
+        }
+
+        assertEquals("help", tree.closest("hlep"));
+        assertEquals("help", tree.closest("hlep", 2));
+        assertNull(tree.closest("xxxxxxxx", 2));
+        assertNull(new BKTree().closest("help"));
+    }
+
+    private static String randomWord(Random random){
+        char[] chars = new char[random.nextInt(10)];
+        for(int i = 0; i < chars.length; i++){
+            chars[i] = "aehilmnoprstv".charAt(random.nextInt(13));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,99 @@
+package inside;
+
+import inside.data.entity.base.BaseEntity;
+import inside.data.service.WriteBehindBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindBufferTest{
+
+    // behaves like a jpa saveAll: ids are generated on persist, a detached entity that is not stored is copied
+    // under a new id, and a failed transaction keeps nothing
+    private static class Store{
+        private final Map<Long, String> rows = new HashMap<>();
+        private long nextId = 1;
+        private int failures;
+
+        void saveAll(List<Row> batch){
+            Map<Long, String> staged = new HashMap<>(rows);
+            for(Row row : batch){
+                if(row.id() == 0){
+                    row.assignId(nextId++);
+                    staged.put(row.id(), row.value);
+                }else if(staged.containsKey(row.id())){
+                    staged.put(row.id(), row.value);
+                }else{
+                    staged.put(nextId++, row.value);
+                }
+            }
+
+            if(failures > 0){
+                failures--;
+                throw new IllegalStateException("connection reset");
+            }
+            rows.clear();
+            rows.putAll(staged);
+        }
+    }
+
+    private static class Row extends BaseEntity{
+        private final String value;
+
+        Row(String value){
+            this.value = value;
+        }
+
+        void assignId(long id){
+            this.id = id;
+        }
+    }
+
+    @Test
+    public void retryInsertsOnce(){
+        Store store = new Store();
+        store.failures = 1;
+        List<Row> dropped = new ArrayList<>();
+        WriteBehindBuffer<String, Row> buffer = new WriteBehindBuffer<>(10, 3, Duration.ZERO,
+                store::saveAll, Row::resetId, dropped::add);
+
+        Row row = new Row("a");
+        buffer.offer("a", row);
+        buffer.flush();
+        assertEquals(1, buffer.getFailures());
+        assertEquals(1, buffer.size());
+        assertTrue(store.rows.isEmpty());
+
+        buffer.flush();
+        assertEquals(0, buffer.size());
+        assertEquals(1, store.rows.size());
+        assertTrue(store.rows.containsKey(row.id()));
+
+        // a later save of the same instance updates the stored row
+        store.saveAll(List.of(row));
+        assertEquals(1, store.rows.size());
+        assertTrue(dropped.isEmpty());
+    }
+
+    @Test
+    public void dropAfterLastAttempt(){
+        Store store = new Store();
+        store.failures = 2;
+        List<Row> dropped = new ArrayList<>();
+        WriteBehindBuffer<String, Row> buffer = new WriteBehindBuffer<>(10, 2, Duration.ZERO,
+                store::saveAll, Row::resetId, dropped::add);
+
+        Row row = new Row("a");
+        buffer.offer("a", row);
+        buffer.flush();
+        buffer.flush();
+        assertEquals(0, buffer.size());
+        assertEquals(1, buffer.getDropped());
+        assertEquals(List.of(row), dropped);
+        assertEquals(0, row.id());
+        assertTrue(store.rows.isEmpty());
+    }
+}